@@ -0,0 +1,89 @@
+package caviar.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import caviar.gui.DialogBox;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+
+/**
+ * Measures creating a {@link DialogBox}, against loading the same layout from FXML as it used to be, and
+ * decoding an avatar image, which used to be done by every window.
+ *
+ * <p>The JavaFX toolkit is started once, so this needs a display to run on. The boxes are never shown.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DialogBoxBenchmark {
+    private static final String AVATAR = "/images/User.jpg";
+    private static final byte[] DIALOG_BOX_FXML = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<?import javafx.geometry.Insets?>\n"
+        + "<?import javafx.scene.control.Label?>\n"
+        + "<?import javafx.scene.image.ImageView?>\n"
+        + "<?import javafx.scene.layout.HBox?>\n"
+        + "<HBox xmlns=\"http://javafx.com/javafx/17\" xmlns:fx=\"http://javafx.com/fxml/1\" alignment=\"TOP_RIGHT\">\n"
+        + "    <children>\n"
+        + "        <Label fx:id=\"dialog\" wrapText=\"true\"/>\n"
+        + "        <ImageView fx:id=\"displayPicture\" fitHeight=\"50.0\" fitWidth=\"50.0\"/>\n"
+        + "    </children>\n"
+        + "    <padding>\n"
+        + "        <Insets bottom=\"10.0\" left=\"10.0\" right=\"10.0\" top=\"10.0\"/>\n"
+        + "    </padding>\n"
+        + "</HBox>\n").getBytes(StandardCharsets.UTF_8);
+
+    private Image avatar;
+
+    /**
+     * Starts the JavaFX toolkit, which controls need even when they are not shown, and decodes the avatar.
+     */
+    @Setup
+    public void setUp() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // The toolkit was started by an earlier trial in this JVM
+        }
+        avatar = decodeAvatar();
+    }
+
+    /**
+     * Creates a dialog box in code, with a shared image.
+     */
+    @Benchmark
+    public DialogBox createDialogBox() {
+        return DialogBox.getUserDialog("deadline return book /by 2025-02-18 1800", avatar);
+    }
+
+    /**
+     * Loads the dialog box layout from FXML, as every message used to.
+     */
+    @Benchmark
+    public HBox loadDialogBoxFxml() throws IOException {
+        return new FXMLLoader().load(new ByteArrayInputStream(DIALOG_BOX_FXML));
+    }
+
+    /**
+     * Decodes the avatar image.
+     */
+    @Benchmark
+    public Image decodeAvatar() {
+        try (InputStream in = DialogBox.class.getResourceAsStream(AVATAR)) {
+            return new Image(in);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
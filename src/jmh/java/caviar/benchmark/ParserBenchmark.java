@@ -0,0 +1,105 @@
+package caviar.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import caviar.command.TaskList;
+import caviar.exception.CaviarException;
+import caviar.parser.Parser;
+import caviar.storage.Storage;
+import caviar.task.Task;
+import caviar.ui.Ui;
+
+/**
+ * Measures {@link Parser#parseAndExecute} on a list of 1,000 tasks that has no storage behind it,
+ * so the numbers cover command parsing and dispatch rather than disk writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private static final int TASK_COUNT = 1000;
+
+    private TaskList taskList;
+    private Ui ui;
+    private Storage storage;
+    private Path directory;
+
+    /**
+     * Fills the task list.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        taskList = new TaskList();
+        for (Task task : TaskFileGenerator.generateTasks(TASK_COUNT)) {
+            taskList.getTasks().add(task);
+        }
+        ui = new Ui(Writer.nullWriter());
+        directory = Files.createTempDirectory("caviar-bench");
+        storage = new Storage(directory.resolve("tasks.txt").toString());
+    }
+
+    /**
+     * Deletes the temporary directory.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(directory);
+    }
+
+    /**
+     * Marks a task as done.
+     */
+    @Benchmark
+    public void mark() throws CaviarException {
+        Parser.parseAndExecute("mark 1", taskList, ui, storage);
+    }
+
+    /**
+     * Adds a deadline and deletes it again, keeping the list at the same size.
+     */
+    @Benchmark
+    public void addAndDeleteDeadline() throws CaviarException {
+        Parser.parseAndExecute("deadline return book /by 2025-02-18 1800", taskList, ui, storage);
+        Parser.parseAndExecute("delete " + (TASK_COUNT + 1), taskList, ui, storage);
+    }
+
+    /**
+     * Finds tasks by keyword.
+     */
+    @Benchmark
+    public void find() throws CaviarException {
+        Parser.parseAndExecute("find pay rent", taskList, ui, storage);
+    }
+
+    /**
+     * Shows the deadlines on one day.
+     */
+    @Benchmark
+    public void date() throws CaviarException {
+        Parser.parseAndExecute("date 2025-06-01", taskList, ui, storage);
+    }
+
+    /**
+     * Rejects an unknown command.
+     */
+    @Benchmark
+    public CaviarException unknownCommand() {
+        try {
+            Parser.parseAndExecute("dance", taskList, ui, storage);
+            return null;
+        } catch (CaviarException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package caviar.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import caviar.exception.CaviarException;
+import caviar.storage.Storage;
+import caviar.task.Task;
+
+/**
+ * Measures loading and saving whole task files in each storage format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    @Param({"text", "binary"})
+    private String format;
+
+    private Path directory;
+    private String loadPath;
+    private String savePath;
+    private List<Task> tasks;
+
+    /**
+     * Writes the task file to load and generates the tasks to save.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("caviar-bench");
+        loadPath = directory.resolve("load.txt").toString();
+        savePath = directory.resolve("save.txt").toString();
+        TaskFileGenerator.writeTaskFile(loadPath, taskCount, isBinary());
+        tasks = TaskFileGenerator.generateTasks(taskCount);
+    }
+
+    /**
+     * Deletes the task files.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(loadPath));
+        Files.deleteIfExists(Path.of(savePath));
+        Files.delete(directory);
+    }
+
+    /**
+     * Loads and parses every task in the file.
+     */
+    @Benchmark
+    public List<Task> load() throws IOException, CaviarException {
+        return new Storage(loadPath).load();
+    }
+
+    /**
+     * Maps the file without parsing its tasks. The binary format is never mapped and is read in full.
+     */
+    @Benchmark
+    public List<Task> loadMapped() throws IOException, CaviarException {
+        Storage storage = new Storage(loadPath);
+        storage.enableMemoryMapping();
+        return storage.load();
+    }
+
+    /**
+     * Parses the file in chunks on the common pool. The binary format is never split and is read in full.
+     */
+    @Benchmark
+    public List<Task> loadParallel() throws IOException, CaviarException {
+        Storage storage = new Storage(loadPath);
+        storage.enableParallelLoading(ForkJoinPool.commonPool());
+        return storage.load();
+    }
+
+    /**
+     * Loads the tasks into the columns of a task store rather than one set of objects each.
+     */
+    @Benchmark
+    public List<Task> loadCompact() throws IOException, CaviarException {
+        Storage storage = new Storage(loadPath);
+        storage.enableCompactTasks();
+        return storage.load();
+    }
+
+    /**
+     * Writes a full snapshot of every task.
+     */
+    @Benchmark
+    public void save() throws IOException {
+        Storage storage = new Storage(savePath);
+        if (isBinary()) {
+            storage.enableBinaryFormat();
+        }
+        storage.save(tasks);
+    }
+
+    private boolean isBinary() {
+        return "binary".equals(format);
+    }
+}
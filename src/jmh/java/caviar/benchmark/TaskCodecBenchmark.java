@@ -0,0 +1,91 @@
+package caviar.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import caviar.exception.CaviarException;
+import caviar.task.Task;
+
+/**
+ * Measures parsing and formatting of single lines of the text task file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskCodecBenchmark {
+    private String todoLine;
+    private String deadlineLine;
+    private String eventLine;
+    private Task todo;
+    private Task deadline;
+    private Task event;
+
+    /**
+     * Prepares one task and storage line of each type.
+     */
+    @Setup
+    public void setUp() {
+        // The generator emits a todo, a deadline and an event in turn
+        List<Task> tasks = TaskFileGenerator.generateTasks(3);
+        todo = tasks.get(0);
+        deadline = tasks.get(1);
+        event = tasks.get(2);
+        todoLine = todo.toStorageString();
+        deadlineLine = deadline.toStorageString();
+        eventLine = event.toStorageString();
+    }
+
+    /**
+     * Parses a todo line.
+     */
+    @Benchmark
+    public Task parseTodo() throws CaviarException {
+        return Task.fromStorageString(todoLine);
+    }
+
+    /**
+     * Parses a deadline line, including its date.
+     */
+    @Benchmark
+    public Task parseDeadline() throws CaviarException {
+        return Task.fromStorageString(deadlineLine);
+    }
+
+    /**
+     * Parses an event line, including both of its dates.
+     */
+    @Benchmark
+    public Task parseEvent() throws CaviarException {
+        return Task.fromStorageString(eventLine);
+    }
+
+    /**
+     * Formats a todo as a storage line.
+     */
+    @Benchmark
+    public String formatTodo() {
+        return todo.toStorageString();
+    }
+
+    /**
+     * Formats a deadline as a storage line.
+     */
+    @Benchmark
+    public String formatDeadline() {
+        return deadline.toStorageString();
+    }
+
+    /**
+     * Formats an event as a storage line.
+     */
+    @Benchmark
+    public String formatEvent() {
+        return event.toStorageString();
+    }
+}
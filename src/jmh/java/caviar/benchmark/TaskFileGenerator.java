@@ -0,0 +1,108 @@
+package caviar.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import caviar.storage.Storage;
+import caviar.task.Deadline;
+import caviar.task.Event;
+import caviar.task.Task;
+import caviar.task.Todo;
+
+/**
+ * Generates synthetic task lists and task files for the benchmarks.
+ *
+ * <p>The output is deterministic for a given size, so results can be compared across runs. Tasks are an even
+ * mix of todos, deadlines and events, their descriptions are drawn from a small vocabulary, and their dates
+ * are spread over two years starting from {@link #FIRST_DATE}.</p>
+ */
+public class TaskFileGenerator {
+    /** The earliest date given to a generated deadline or event. */
+    public static final LocalDateTime FIRST_DATE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final long SEED = 2025L;
+    private static final int DAYS_SPANNED = 730;
+    private static final String[] WORDS = {
+        "read", "book", "return", "library", "project", "meeting", "submit", "report", "buy", "groceries",
+        "call", "home", "review", "pull", "request", "pay", "rent", "gym", "lecture", "quiz",
+        "tutorial", "draft", "essay", "water", "plants", "clean", "room", "plan", "trip", "team"
+    };
+
+    private TaskFileGenerator() {
+    }
+
+    /**
+     * Generates a list of tasks.
+     *
+     * @param count The number of tasks to generate.
+     * @return The generated tasks.
+     */
+    public static List<Task> generateTasks(int count) {
+        Random random = new Random(SEED);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = generateDescription(random);
+            LocalDateTime dateTime = FIRST_DATE.plusDays(random.nextInt(DAYS_SPANNED))
+                .plusMinutes(30L * random.nextInt(48));
+            Task task;
+            switch (i % 3) {
+            case 0:
+                task = new Todo(description);
+                break;
+            case 1:
+                task = new Deadline(description, dateTime);
+                break;
+            default:
+                task = new Event(description, dateTime, dateTime.plusHours(1 + random.nextInt(3)));
+                break;
+            }
+            if (random.nextInt(4) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes a task file of generated tasks.
+     *
+     * @param path     The task file to write.
+     * @param count    The number of tasks to generate.
+     * @param isBinary Whether to write the binary format rather than text.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeTaskFile(String path, int count, boolean isBinary) throws IOException {
+        Storage storage = new Storage(path);
+        if (isBinary) {
+            storage.enableBinaryFormat();
+        }
+        storage.save(generateTasks(count));
+    }
+
+    /**
+     * Writes a task file from the command line.
+     *
+     * @param args {@code <path> <count> [text|binary]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3 || (args.length == 3 && !args[2].matches("text|binary"))) {
+            System.out.println("Usage: TaskFileGenerator <path> <count> [text|binary]");
+            return;
+        }
+        int count = Integer.parseInt(args[1]);
+        writeTaskFile(args[0], count, args.length == 3 && "binary".equals(args[2]));
+        System.out.println("Roe! Generated " + count + " tasks in " + args[0] + ".");
+    }
+
+    private static String generateDescription(Random random) {
+        int wordCount = 2 + random.nextInt(3);
+        StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < wordCount; i++) {
+            description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package caviar.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import caviar.command.TaskList;
+import caviar.task.Task;
+
+/**
+ * Measures the read-mostly {@link TaskList} queries and sorting, including formatting their responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int taskCount;
+
+    private List<Task> tasks;
+    private TaskList taskList;
+
+    /**
+     * Fills the task list and builds its indexes.
+     */
+    @Setup
+    public void setUp() {
+        tasks = TaskFileGenerator.generateTasks(taskCount);
+        taskList = new TaskList();
+        taskList.getTasks().addAll(tasks);
+        // The first queries build the indexes, which is not what the steady-state benchmarks measure
+        taskList.findTasks("book");
+        taskList.showTasksOnDate("2025-06-01");
+    }
+
+    /**
+     * Finds a single word that many tasks contain.
+     */
+    @Benchmark
+    public List<Task> findCommonWord() {
+        return taskList.findTasks("book");
+    }
+
+    /**
+     * Finds a two-word phrase that few tasks contain.
+     */
+    @Benchmark
+    public List<Task> findPhrase() {
+        return taskList.findTasks("pay rent");
+    }
+
+    /**
+     * Finds a keyword too short for the index.
+     */
+    @Benchmark
+    public List<Task> findShortKeyword() {
+        return taskList.findTasks("bo");
+    }
+
+    /**
+     * Shows the deadlines on one day.
+     */
+    @Benchmark
+    public String showTasksOnDate() {
+        return taskList.showTasksOnDate("2025-06-01");
+    }
+
+    /**
+     * Shows the deadlines in one week.
+     */
+    @Benchmark
+    public String showTasksBetween() {
+        return taskList.showTasksBetween("2025-06-01", "2025-06-07");
+    }
+
+    /**
+     * Sorts a shuffled list chronologically.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String sortTasksByOption(ShuffledTaskList shuffled) {
+        return shuffled.taskList.sortTasksByOption(1);
+    }
+
+    /**
+     * A task list in random order, refilled before every sort since sorting is done in place.
+     */
+    @State(Scope.Thread)
+    public static class ShuffledTaskList {
+        private final Random random = new Random(1);
+        private TaskList taskList;
+
+        /**
+         * Refills the task list in a new random order.
+         */
+        @Setup(Level.Invocation)
+        public void setUp(TaskListBenchmark benchmark) {
+            List<Task> shuffledTasks = new ArrayList<>(benchmark.tasks);
+            Collections.shuffle(shuffledTasks, random);
+            taskList = new TaskList();
+            taskList.getTasks().addAll(shuffledTasks);
+        }
+    }
+}
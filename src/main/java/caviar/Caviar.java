@@ -1,8 +1,8 @@
 package caviar;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.util.List;
+import java.util.stream.Collectors;
 import caviar.command.TaskList;
 import caviar.exception.CaviarException;
 import caviar.parser.Parser;
@@ -27,15 +27,30 @@ public class Caviar {
      * @throws CaviarException If an error occurs while loading tasks.
      */
     public Caviar(String filePath) throws CaviarException {
-        assert filePath != null && !filePath.isEmpty() : "File path must not be null or empty";
+        this(createStorage(filePath));
+    }
+
+    /**
+     * Initializes the chatbot with the given storage, loading tasks from it if available.
+     *
+     * @param storage The storage to load tasks from and save them to.
+     * @throws CaviarException If an error occurs while loading tasks.
+     */
+    public Caviar(Storage storage) throws CaviarException {
+        assert storage != null : "Storage must not be null";
 
         ui = new Ui();
-        storage = new Storage(filePath);
+        this.storage = storage;
 
         taskList = loadTaskListSafely();
         assert taskList != null : "TaskList should never be null after initialization";
     }
 
+    private static Storage createStorage(String filePath) {
+        assert filePath != null && !filePath.isEmpty() : "File path must not be null or empty";
+        return new Storage(filePath);
+    }
+
     /**
      * Runs the main interaction loop of CLI version for Caviar chatbot.
      *
@@ -46,13 +61,14 @@ public class Caviar {
         ui.showWelcome();
         mainLoop();
         ui.close();
+        closeStorage();
     }
 
     private void mainLoop() {
         while (true) {
             try {
                 String input = readUserInput();
-                if (isBye(input)) {
+                if (isExitCommand(input)) {
                     ui.showMessage("Roe. Hope to see you again soon!");
                     break;
                 }
@@ -67,6 +83,14 @@ public class Caviar {
         }
     }
 
+    private void closeStorage() {
+        try {
+            storage.close();
+        } catch (IOException e) {
+            ui.showMessage("roe..!! Error saving task.");
+        }
+    }
+
     private TaskList loadTaskListSafely() throws CaviarException {
         TaskList tempTaskList;
         try {
@@ -86,38 +110,68 @@ public class Caviar {
 
     private void processInput(String input) throws CaviarException {
         if ("list".equals(input)) {
-            taskList.listTasks();
+            ui.showMessage(taskList.listTasks());
         } else {
             Parser.parseAndExecute(input, taskList, ui, storage);
         }
     }
 
-    private boolean isBye(String input) {
-        boolean isByeCommand = "bye".equalsIgnoreCase(input);
-        return isByeCommand;
+    /**
+     * Returns whether the input ends the session, so the caller can close it after saying goodbye.
+     *
+     * @param input The user command
+     * @return {@code true} if the input is a {@code bye} command.
+     */
+    public static boolean isExitCommand(String input) {
+        return Parser.isBye(input);
     }
 
     /**
-     * Captures the output from parseAndExecute so it can be displayed in the GUI.
+     * Executes a command and returns its output, so it can be displayed in the GUI.
+     *
+     * <p>The output is collected in a sink of its own rather than through standard output.</p>
      *
      * @param input The user command
      * @return The output text from parseAndExecute
      */
     public String getResponseFromCaviar(String input) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream ps = new PrintStream(baos);
-        PrintStream oldOut = System.out;
-        System.setOut(ps);
-
+        StringBuilder response = new StringBuilder();
         try {
-            Parser.parseAndExecute(input, taskList, ui, storage);
+            Parser.parseAndExecute(input, taskList, new Ui(response), storage);
         } catch (CaviarException e) {
             return e.getMessage();
-        } finally {
-            System.setOut(oldOut);
         }
+        return response.toString();
+    }
 
-        return baos.toString();
+    /**
+     * Executes a batch of commands, saving the changes once at the end.
+     *
+     * @param commands        The commands to execute.
+     * @param isTransactional Whether a failing command should undo the whole batch.
+     * @return The output of each command that was executed, in order.
+     * @throws CaviarException If the batch is transactional and a command fails.
+     * @see Parser#executeBatch(Iterable, TaskList, Ui, Storage, boolean)
+     */
+    public List<String> executeBatch(List<String> commands, boolean isTransactional) throws CaviarException {
+        return Parser.executeBatch(commands, taskList, ui, storage, isTransactional);
+    }
+
+    /**
+     * Executes a script of newline-separated commands, such as {@code text-ui-test/input.txt},
+     * saving the changes once at the end. Lines are trimmed as in the CLI, and blank lines are skipped.
+     *
+     * @param script          The commands to execute, one per line.
+     * @param isTransactional Whether a failing command should undo the whole script.
+     * @return The output of each command that was executed, in order.
+     * @throws CaviarException If the script is transactional and a command fails.
+     */
+    public List<String> executeScript(String script, boolean isTransactional) throws CaviarException {
+        List<String> commands = script.lines()
+            .map(String::trim)
+            .filter(line -> !line.isEmpty())
+            .collect(Collectors.toList());
+        return executeBatch(commands, isTransactional);
     }
 
     /**
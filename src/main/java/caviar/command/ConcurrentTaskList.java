@@ -0,0 +1,361 @@
+package caviar.command;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import caviar.exception.CaviarException;
+import caviar.storage.Storage;
+import caviar.task.Deadline;
+import caviar.task.Task;
+
+/**
+ * A {@link TaskList} that several threads can use at once, e.g. many readers and one writer.
+ *
+ * <p>Every change takes the write lock of a {@link StampedLock}, and queries take its read lock, so readers
+ * never block each other and never see a change half-applied. New readers wait behind a writer that is waiting
+ * for the lock, so a steady stream of queries cannot hold off changes. {@link #listTasks()} only copies the task
+ * references under the lock and formats the copy outside it.</p>
+ *
+ * <p>The search indexes are kept built after every change, so queries only read shared state. Once deletions
+ * leave the keyword index mostly empty, the thread that made the change rebuilds it outside the lock, as that
+ * takes seconds for a large list, and swaps it in unless the list changed meanwhile. Until then the old index
+ * keeps answering queries. A transaction
+ * holds the write lock from {@link #beginTransaction()} until it commits or rolls back, so its changes never
+ * interleave with other threads' and can be undone by position. Meanwhile the thread running it uses this list
+ * without locking, and every other thread waits. The lock is not reentrant, so {@code TaskList} methods must
+ * not call each other's public methods.</p>
+ */
+public class ConcurrentTaskList extends TaskList {
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock writerTurnstile = new ReentrantLock(); // Held by a writer waiting for the lock
+    private final Object saveLock = new Object();
+    private volatile Thread transactionOwner; // The thread holding the write lock for a transaction, if any
+    private long transactionStamp;
+    private long changeCount; // Guarded by the write lock
+    private final AtomicBoolean isRebuildingKeywordIndex = new AtomicBoolean();
+
+    /**
+     * Constructs an empty {@code ConcurrentTaskList} without storage.
+     */
+    public ConcurrentTaskList() {
+        super();
+        buildIndexes();
+    }
+
+    /**
+     * Constructs a {@code ConcurrentTaskList} and loads tasks from storage.
+     *
+     * @param storage The storage instance to load tasks from.
+     * @throws IOException              If there is an issue reading from the storage file.
+     * @throws CaviarException          If the storage file contains invalid task data.
+     * @throws IllegalArgumentException If the storage loads tasks by memory-mapping, as reading such a list
+     *                                  changes it.
+     */
+    public ConcurrentTaskList(Storage storage) throws IOException, CaviarException {
+        super(requireSharable(storage));
+        buildIndexes();
+    }
+
+    private static Storage requireSharable(Storage storage) {
+        if (storage.isMemoryMapped()) {
+            throw new IllegalArgumentException("Memory-mapped tasks cannot be shared between threads");
+        }
+        return storage;
+    }
+
+    @Override
+    public String listTasks() {
+        return formatList(getTasks());
+    }
+
+    @Override
+    public String addTask(Task task) {
+        return write(() -> super.addTask(task));
+    }
+
+    @Override
+    public String markTask(int index) throws CaviarException {
+        return writeChecked(() -> super.markTask(index));
+    }
+
+    @Override
+    public String unmarkTask(int index) throws CaviarException {
+        return writeChecked(() -> super.unmarkTask(index));
+    }
+
+    @Override
+    public String deleteTask(int index) throws CaviarException {
+        return writeChecked(() -> super.deleteTask(index));
+    }
+
+    /**
+     * Saves the changes made since the last save to the underlying storage.
+     *
+     * <p>Only the read lock is held while writing, so queries carry on during the save.</p>
+     *
+     * @throws IOException If an I/O error occurs while writing tasks to the storage file.
+     */
+    @Override
+    public void saveTasks() throws IOException {
+        if (isInTransaction()) {
+            super.saveTasks();
+            return;
+        }
+        synchronized (saveLock) {
+            long stamp = lockForReading();
+            try {
+                super.saveTasks();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Starts a transaction, taking the write lock until it commits or rolls back.
+     *
+     * <p>Another thread starting a transaction waits for this one to end.</p>
+     *
+     * @throws IllegalStateException If this thread already has a transaction in progress.
+     */
+    @Override
+    public void beginTransaction() {
+        if (isInTransaction()) {
+            throw new IllegalStateException("A transaction is already in progress");
+        }
+        long stamp = lockForWriting();
+        try {
+            super.beginTransaction();
+        } catch (RuntimeException e) {
+            lock.unlockWrite(stamp);
+            throw e;
+        }
+        transactionStamp = stamp;
+        transactionOwner = Thread.currentThread();
+    }
+
+    @Override
+    public void commitTransaction() {
+        if (!isInTransaction()) {
+            return;
+        }
+        try {
+            super.commitTransaction();
+        } finally {
+            endTransaction();
+        }
+    }
+
+    @Override
+    public void rollbackTransaction() {
+        if (!isInTransaction()) {
+            return;
+        }
+        try {
+            super.rollbackTransaction();
+        } finally {
+            endTransaction();
+        }
+    }
+
+    private boolean isInTransaction() {
+        return transactionOwner == Thread.currentThread();
+    }
+
+    private void endTransaction() {
+        afterChange();
+        boolean isRebuildDue = isKeywordIndexMostlyDeleted();
+        transactionOwner = null;
+        lock.unlockWrite(transactionStamp);
+        if (isRebuildDue) {
+            rebuildKeywordIndex();
+        }
+    }
+
+    @Override
+    public List<Task> findTasks(String keyword) {
+        return read(() -> super.findTasks(keyword));
+    }
+
+    /**
+     * Returns a snapshot of the tasks, which later changes to this list do not affect.
+     *
+     * @return An unmodifiable copy of the tasks.
+     */
+    @Override
+    public List<Task> getTasks() {
+        List<Task> tasks = super.getTasks();
+        return read(() -> Collections.unmodifiableList(Arrays.asList(tasks.toArray(new Task[0]))));
+    }
+
+    @Override
+    public String sortTasksByOption(int option) {
+        return read(() -> super.sortTasksByOption(option));
+    }
+
+    @Override
+    public String sortTasksByType(String type, int option) {
+        return read(() -> super.sortTasksByType(type, option));
+    }
+
+    @Override
+    public String showTasksOnDate(String dateStr) {
+        return read(() -> super.showTasksOnDate(dateStr));
+    }
+
+    @Override
+    public String showTasksBetween(String fromStr, String toStr) {
+        return read(() -> super.showTasksBetween(fromStr, toStr));
+    }
+
+    @Override
+    public List<Deadline> findDeadlinesBetween(LocalDate from, LocalDate to) {
+        return read(() -> super.findDeadlinesBetween(from, to));
+    }
+
+    @Override
+    boolean isIndexBuiltOnQuery() {
+        return false; // Queries run side by side under the read lock, so they must not build an index
+    }
+
+    /**
+     * Runs a query under the read lock. The query must not change any state, as other queries run alongside it.
+     */
+    private <T> T read(Supplier<T> query) {
+        if (isInTransaction()) {
+            return query.get();
+        }
+        long stamp = lockForReading();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Takes the read lock, after any writer already waiting for the lock has had its turn.
+     */
+    private long lockForReading() {
+        if (writerTurnstile.isLocked()) { // The read lock would otherwise let this reader barge ahead of it
+            writerTurnstile.lock();
+            writerTurnstile.unlock();
+        }
+        return lock.readLock();
+    }
+
+    private long lockForWriting() {
+        writerTurnstile.lock();
+        try {
+            return lock.writeLock();
+        } finally {
+            writerTurnstile.unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> change) {
+        if (isInTransaction()) {
+            try {
+                return change.get();
+            } finally {
+                afterChange();
+            }
+        }
+        T result;
+        boolean isRebuildDue;
+        long stamp = lockForWriting();
+        try {
+            result = change.get();
+        } finally {
+            afterChange();
+            isRebuildDue = isKeywordIndexMostlyDeleted();
+            lock.unlockWrite(stamp);
+        }
+        if (isRebuildDue) {
+            rebuildKeywordIndex();
+        }
+        return result;
+    }
+
+    private <T> T writeChecked(CheckedChange<T> change) throws CaviarException {
+        if (isInTransaction()) {
+            try {
+                return change.apply();
+            } finally {
+                afterChange();
+            }
+        }
+        T result;
+        boolean isRebuildDue;
+        long stamp = lockForWriting();
+        try {
+            result = change.apply();
+        } finally {
+            afterChange();
+            isRebuildDue = isKeywordIndexMostlyDeleted();
+            lock.unlockWrite(stamp);
+        }
+        if (isRebuildDue) {
+            rebuildKeywordIndex();
+        }
+        return result;
+    }
+
+    /**
+     * Brings the indexes up to date after a change, under the write lock.
+     */
+    private void afterChange() {
+        changeCount++;
+        buildIndexes();
+    }
+
+    /**
+     * Builds a keyword index from a copy of the tasks outside the lock, and swaps it in if the list has not
+     * changed since the copy was taken. Only one thread rebuilds at a time; the others leave it to that one.
+     */
+    private void rebuildKeywordIndex() {
+        if (!isRebuildingKeywordIndex.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Task> snapshot;
+            long snapshotChangeCount;
+            long stamp = lockForReading();
+            try {
+                if (!isKeywordIndexMostlyDeleted()) {
+                    return;
+                }
+                snapshot = new ArrayList<>(super.getTasks());
+                snapshotChangeCount = changeCount;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            KeywordIndex index = new KeywordIndex(snapshot);
+            stamp = lockForWriting();
+            try {
+                if (changeCount == snapshotChangeCount) {
+                    replaceKeywordIndex(index);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        } finally {
+            isRebuildingKeywordIndex.set(false);
+        }
+    }
+
+    /**
+     * A change to the list that may be rejected.
+     */
+    @FunctionalInterface
+    private interface CheckedChange<T> {
+        T apply() throws CaviarException;
+    }
+}
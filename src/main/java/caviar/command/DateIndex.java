@@ -0,0 +1,95 @@
+package caviar.command;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import caviar.task.Deadline;
+import caviar.task.Task;
+
+/**
+ * Index of deadlines by the date they are due, so the {@code date} command does not scan the whole list.
+ *
+ * <p>Deadlines on the same date are kept in task-list order as long as tasks are only appended or removed;
+ * any other reordering of the list must rebuild the index.</p>
+ */
+class DateIndex {
+    private final TreeMap<LocalDate, List<Deadline>> deadlinesByDate = new TreeMap<>();
+
+    /**
+     * Constructs a {@code DateIndex} of the given tasks.
+     *
+     * @param tasks The tasks to index, in list order.
+     */
+    DateIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task after every indexed task due on the same date. Tasks without a due date are ignored.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            deadlinesByDate.computeIfAbsent(deadline.getBy().toLocalDate(), date -> new ArrayList<>(1)).add(deadline);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        if (!(task instanceof Deadline)) {
+            return;
+        }
+        LocalDate date = ((Deadline) task).getBy().toLocalDate();
+        List<Deadline> deadlines = deadlinesByDate.get(date);
+        if (deadlines == null) {
+            return;
+        }
+        for (int i = 0; i < deadlines.size(); i++) {
+            if (task.equals(deadlines.get(i))) { // Tasks with the same values are only equal if they are the same task
+                deadlines.remove(i);
+                break;
+            }
+        }
+        if (deadlines.isEmpty()) {
+            deadlinesByDate.remove(date);
+        }
+    }
+
+    /**
+     * Returns the deadlines due on the given date, in task-list order.
+     *
+     * @param date The date to look up.
+     * @return The deadlines due on that date.
+     */
+    List<Deadline> getDueOn(LocalDate date) {
+        List<Deadline> deadlines = deadlinesByDate.get(date);
+        return deadlines == null ? List.of() : new ArrayList<>(deadlines);
+    }
+
+    /**
+     * Returns the deadlines due between the given dates, inclusive, ordered by date and then by task-list order.
+     *
+     * @param from The first date of the range.
+     * @param to   The last date of the range.
+     * @return The deadlines due in the range, or an empty list if {@code from} is after {@code to}.
+     */
+    List<Deadline> getDueBetween(LocalDate from, LocalDate to) {
+        List<Deadline> result = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        for (List<Deadline> deadlines : deadlinesByDate.subMap(from, true, to, true).values()) {
+            result.addAll(deadlines);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,202 @@
+package caviar.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import caviar.task.Task;
+
+/**
+ * N-gram index of task descriptions, so the {@code find} command does not scan the whole list.
+ *
+ * <p>Every task gets an id in list order, and every sequence of one, two or three characters of its
+ * description, ignoring case, maps to the ids of the tasks containing it. A keyword of one or two
+ * characters is answered by its posting list alone. A longer keyword is looked up by intersecting the
+ * posting lists of its trigrams, and only the tasks left over have their description checked, which
+ * still matches on any substring just like a full scan.</p>
+ *
+ * <p>Deleted tasks leave a gap in the ids rather than renumbering the others. The ids only follow
+ * the list order while tasks are appended or removed, so any other reordering of the list must
+ * rebuild the index.</p>
+ */
+class KeywordIndex {
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    private static final int ASCII_LIMIT = 128;
+
+    private final PostingList[] asciiPostings = new PostingList[ASCII_LIMIT]; // Single ASCII characters
+    private final Map<Long, PostingList> postings = new HashMap<>(); // Every other n-gram
+    private final List<Task> tasksById = new ArrayList<>(); // Deleted tasks are left as null
+    private int[] idsByPosition;
+    private int size;
+
+    /**
+     * Constructs a {@code KeywordIndex} of the given tasks.
+     *
+     * @param tasks The tasks to index, in list order.
+     */
+    KeywordIndex(List<Task> tasks) {
+        idsByPosition = new int[Math.max(tasks.size(), 16)];
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds a task at the end of the list.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        int id = tasksById.size();
+        tasksById.add(task);
+        if (size == idsByPosition.length) {
+            idsByPosition = Arrays.copyOf(idsByPosition, size + (size >> 1) + 1);
+        }
+        idsByPosition[size++] = id;
+
+        String text = task.getDescription();
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (c < ASCII_LIMIT) {
+                if (asciiPostings[c] == null) {
+                    asciiPostings[c] = new PostingList();
+                }
+                asciiPostings[c].add(id);
+            } else {
+                postings.computeIfAbsent(gramAt(text, i, 1), gram -> new PostingList()).add(id);
+            }
+        }
+        for (int length = 2; length <= MAX_GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                postings.computeIfAbsent(gramAt(text, i, length), gram -> new PostingList()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Removes the task at the given position in the list.
+     *
+     * @param position The position of the task to remove.
+     */
+    void remove(int position) {
+        tasksById.set(idsByPosition[position], null);
+        System.arraycopy(idsByPosition, position + 1, idsByPosition, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Returns whether deleted tasks outnumber the remaining ones, so the index is worth rebuilding.
+     */
+    boolean isMostlyDeleted() {
+        return tasksById.size() - size > size;
+    }
+
+    /**
+     * Finds the tasks whose descriptions contain the keyword, ignoring case.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching tasks, in list order.
+     */
+    List<Task> find(String keyword) {
+        List<Task> matchingTasks = new ArrayList<>();
+        if (keyword.isEmpty()) {
+            for (Task task : tasksById) {
+                if (task != null) {
+                    matchingTasks.add(task);
+                }
+            }
+            return matchingTasks;
+        }
+        if (keyword.length() < MAX_GRAM_LENGTH) {
+            PostingList list = getPostings(keyword, 0, keyword.length());
+            for (int i = 0; list != null && i < list.size; i++) {
+                Task task = tasksById.get(list.ids[i]);
+                if (task != null) {
+                    matchingTasks.add(task);
+                }
+            }
+            return matchingTasks;
+        }
+
+        PostingList[] lists = new PostingList[keyword.length() - MAX_GRAM_LENGTH + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = getPostings(keyword, i, MAX_GRAM_LENGTH);
+            if (lists[i] == null) {
+                return matchingTasks;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] cursors = new int[lists.length];
+        PostingList shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int id = shortest.ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                int found = Arrays.binarySearch(lists[j].ids, cursors[j], lists[j].size, id);
+                cursors[j] = found >= 0 ? found : -found - 1; // Later candidates only have larger ids
+                if (found < 0) {
+                    continue candidates;
+                }
+            }
+            Task task = tasksById.get(id);
+            if (task != null && containsIgnoreCase(task.getDescription(), keyword)) {
+                matchingTasks.add(task);
+            }
+        }
+        return matchingTasks;
+    }
+
+    private PostingList getPostings(String text, int start, int length) {
+        char first = fold(text.charAt(start));
+        if (length == 1 && first < ASCII_LIMIT) {
+            return asciiPostings[first];
+        }
+        return postings.get(gramAt(text, start, length));
+    }
+
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        for (int i = 0; i + keyword.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Packs the {@code length} characters at {@code start}, folded the way {@link String#regionMatches(boolean,
+     * int, String, int, int)} ignores case, and the length itself into one key.
+     */
+    private static long gramAt(String text, int start, int length) {
+        long gram = length;
+        for (int i = start; i < start + length; i++) {
+            gram = (gram << 16) | fold(text.charAt(i));
+        }
+        return gram;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Ascending ids of the tasks containing one n-gram.
+     */
+    private static class PostingList {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return; // The n-gram occurs more than once in the same description
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package caviar.command;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import caviar.task.Deadline;
+import caviar.task.Event;
+import caviar.task.Task;
+import caviar.task.Todo;
+
+/**
+ * Sorted views of the task list for the {@code sort} command, kept up to date as tasks are added and removed,
+ * so sorting never reorders the list itself.
+ *
+ * <p>Tasks with a date come first, by date; the others follow by description, ignoring case. Each task's sort
+ * key is computed once, when it is added. Tasks with equal keys keep their order in the list, in both
+ * directions, as a stable sort of the list would. Marking a task does not change its key.</p>
+ *
+ * <p>The index of a whole list is built with one primitive sort of packed keys, in parallel for large lists, and
+ * the sorted entries are then added to the sets in order.</p>
+ *
+ * <p>As with {@link DateIndex}, tasks may only be appended or removed; any other reordering of the list must
+ * rebuild the index.</p>
+ */
+class SortIndex {
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+    private static final long SECONDS_PER_MINUTE = 60;
+
+    private final TreeSet<Entry> all = new TreeSet<>();
+    private final TreeSet<Entry> todos = new TreeSet<>();
+    private final TreeSet<Entry> deadlines = new TreeSet<>();
+    private final TreeSet<Entry> events = new TreeSet<>();
+    private final Map<Task, List<Entry>> entriesByTask = new HashMap<>();
+    private long nextSequence;
+
+    /**
+     * Constructs a {@code SortIndex} of the given tasks.
+     *
+     * @param tasks The tasks to index, in list order.
+     */
+    SortIndex(List<Task> tasks) {
+        Entry[] entries = new Entry[tasks.size()];
+        for (int i = 0; i < entries.length; i++) {
+            Task task = tasks.get(i);
+            entries[i] = new Entry(task, nextSequence++);
+            entriesByTask.computeIfAbsent(task, t -> new ArrayList<>(1)).add(entries[i]);
+        }
+        List<Entry> sorted = Arrays.asList(sortEntries(entries));
+        List<Entry> sortedTodos = new ArrayList<>();
+        List<Entry> sortedDeadlines = new ArrayList<>();
+        List<Entry> sortedEvents = new ArrayList<>();
+        for (Entry entry : sorted) {
+            TreeSet<Entry> ofType = getTypeSet(entry.task);
+            if (ofType == todos) {
+                sortedTodos.add(entry);
+            } else if (ofType == deadlines) {
+                sortedDeadlines.add(entry);
+            } else if (ofType == events) {
+                sortedEvents.add(entry);
+            }
+        }
+        // Each entry is inserted with O(log n) comparisons rather than linked in one pass, but in order they all
+        // take the same path down the tree, so for a million tasks this adds only about a quarter to the build
+        all.addAll(sorted);
+        todos.addAll(sortedTodos);
+        deadlines.addAll(sortedDeadlines);
+        events.addAll(sortedEvents);
+    }
+
+    /**
+     * Adds a task after every indexed task with the same sort key.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        Entry entry = new Entry(task, nextSequence++);
+        entriesByTask.computeIfAbsent(task, t -> new ArrayList<>(1)).add(entry);
+        all.add(entry);
+        TreeSet<Entry> ofType = getTypeSet(task);
+        if (ofType != null) {
+            ofType.add(entry);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task      The task to remove.
+     * @param index     The position the task was removed from.
+     * @param remaining The tasks left in the list.
+     */
+    void remove(Task task, int index, List<Task> remaining) {
+        List<Entry> entries = entriesByTask.get(task); // Equal only to itself, or to views of the same stored task
+        if (entries == null) {
+            return;
+        }
+        int occurrence = 0; // Entries of the same task are in list order, so skip those before the removed one
+        if (entries.size() > 1) {
+            for (int i = 0; i < index; i++) {
+                if (task.equals(remaining.get(i))) {
+                    occurrence++;
+                }
+            }
+        }
+        Entry entry = entries.remove(occurrence);
+        if (entries.isEmpty()) {
+            entriesByTask.remove(task);
+        }
+        all.remove(entry);
+        TreeSet<Entry> ofType = getTypeSet(task);
+        if (ofType != null) {
+            ofType.remove(entry);
+        }
+    }
+
+    /**
+     * Returns the tasks of the given type in sorted order.
+     *
+     * @param type       {@code "todo"}, {@code "deadline"}, {@code "event"}, or {@code null} for every task.
+     * @param isReversed Whether to return the tasks in reverse order.
+     * @return The sorted tasks.
+     */
+    List<Task> getSorted(String type, boolean isReversed) {
+        TreeSet<Entry> entries = type == null ? all : getTypeSet(type);
+        List<Task> sorted = new ArrayList<>(entries.size());
+        if (!isReversed) {
+            for (Entry entry : entries) {
+                sorted.add(entry.task);
+            }
+            return sorted;
+        }
+        Entry runStart = null;
+        int runStartIndex = 0;
+        for (Iterator<Entry> it = entries.descendingIterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (runStart == null || runStart.compareKey(entry) != 0) {
+                Collections.reverse(sorted.subList(runStartIndex, sorted.size())); // Restore the order of ties
+                runStart = entry;
+                runStartIndex = sorted.size();
+            }
+            sorted.add(entry.task);
+        }
+        Collections.reverse(sorted.subList(runStartIndex, sorted.size()));
+        return sorted;
+    }
+
+    /**
+     * Sorts entries numbered in list order, without comparing them one pair at a time.
+     *
+     * <p>Each entry's sort key is packed into the high bits of a {@code long} and its position into the low bits,
+     * so sorting the packed values orders entries by key and ties by position, as {@link Entry#compareTo} does.
+     * A dated key is the minute since the earliest date in the list; an undated key is the rank of its folded
+     * description, above every dated key, which takes one sort of the distinct descriptions. If a date is not on
+     * a whole minute, or the keys are too far apart to pack, the entries are sorted by comparison instead.</p>
+     */
+    private static Entry[] sortEntries(Entry[] entries) {
+        long[] packed = packKeys(entries);
+        if (packed == null) {
+            Entry[] sorted = entries.clone();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+        sortLongs(packed);
+        long positionMask = (1L << positionBits(entries.length)) - 1;
+        Entry[] sorted = new Entry[entries.length];
+        for (int i = 0; i < packed.length; i++) {
+            sorted[i] = entries[(int) (packed[i] & positionMask)];
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns each entry's key and position packed into one {@code long}, or {@code null} if they do not fit.
+     */
+    private static long[] packKeys(Entry[] entries) {
+        long minMinute = Long.MAX_VALUE;
+        long maxMinute = Long.MIN_VALUE;
+        List<String> descriptions = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (!entry.hasDate) {
+                descriptions.add(entry.foldedDescription);
+            } else if (entry.nano != 0 || entry.epochSecond % SECONDS_PER_MINUTE != 0) {
+                return null;
+            } else {
+                minMinute = Math.min(minMinute, entry.epochSecond / SECONDS_PER_MINUTE);
+                maxMinute = Math.max(maxMinute, entry.epochSecond / SECONDS_PER_MINUTE);
+            }
+        }
+        String[] distinctDescriptions = descriptions.toArray(new String[0]);
+        if (distinctDescriptions.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(distinctDescriptions);
+        } else {
+            Arrays.sort(distinctDescriptions);
+        }
+        int distinctCount = removeDuplicates(distinctDescriptions);
+
+        long undatedBase = minMinute > maxMinute ? 0 : maxMinute - minMinute + 1; // Dated keys go first
+        int positionBits = positionBits(entries.length);
+        if (undatedBase + distinctCount >= 1L << (Long.SIZE - 1 - positionBits)) {
+            return null;
+        }
+        long[] packed = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            Entry entry = entries[i];
+            long key = entry.hasDate
+                ? entry.epochSecond / SECONDS_PER_MINUTE - minMinute
+                : undatedBase + Arrays.binarySearch(distinctDescriptions, 0, distinctCount, entry.foldedDescription);
+            packed[i] = key << positionBits | i;
+        }
+        return packed;
+    }
+
+    private static int positionBits(int count) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(count - 1));
+    }
+
+    private static void sortLongs(long[] values) {
+        if (values.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(values);
+        } else {
+            Arrays.sort(values);
+        }
+    }
+
+    /**
+     * Moves the distinct values of a sorted array to its front and returns how many there are.
+     */
+    private static int removeDuplicates(String[] sorted) {
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || !sorted[i].equals(sorted[count - 1])) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return count;
+    }
+
+    private TreeSet<Entry> getTypeSet(Task task) {
+        if (task instanceof Todo) {
+            return todos;
+        } else if (task instanceof Deadline) {
+            return deadlines;
+        } else if (task instanceof Event) {
+            return events;
+        }
+        return null;
+    }
+
+    private TreeSet<Entry> getTypeSet(String type) {
+        switch (type) {
+        case "todo":
+            return todos;
+        case "deadline":
+            return deadlines;
+        case "event":
+            return events;
+        default:
+            throw new IllegalArgumentException("Unknown task type: " + type);
+        }
+    }
+
+    private static LocalDateTime getDateTimeIfAny(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            return ((Event) task).getFrom();
+        }
+        return null; // Todo has no date/time
+    }
+
+    /**
+     * Folds the case of a description so that comparing folded strings gives the same result as
+     * {@link String#compareToIgnoreCase(String)} on the originals.
+     */
+    private static String foldCase(String description) {
+        char[] folded = new char[description.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(description.charAt(i)));
+        }
+        return new String(folded);
+    }
+
+    /**
+     * A task together with its precomputed sort key.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final Task task;
+        private final boolean hasDate;
+        private final long epochSecond;
+        private final int nano;
+        private final String foldedDescription; // Only needed for tasks without a date
+        private final long sequence;
+
+        private Entry(Task task, long sequence) {
+            LocalDateTime dateTime = getDateTimeIfAny(task);
+            this.task = task;
+            this.hasDate = dateTime != null;
+            this.epochSecond = hasDate ? dateTime.toEpochSecond(ZoneOffset.UTC) : 0;
+            this.nano = hasDate ? dateTime.getNano() : 0;
+            this.foldedDescription = hasDate ? null : foldCase(task.getDescription());
+            this.sequence = sequence;
+        }
+
+        /**
+         * Compares the sort keys alone, ignoring the order in which the tasks were added.
+         */
+        private int compareKey(Entry other) {
+            if (hasDate != other.hasDate) {
+                return hasDate ? -1 : 1; // A task with a date goes first
+            }
+            if (hasDate) {
+                int bySecond = Long.compare(epochSecond, other.epochSecond);
+                return bySecond != 0 ? bySecond : Integer.compare(nano, other.nano);
+            }
+            return foldedDescription.compareTo(other.foldedDescription);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = compareKey(other);
+            return byKey != 0 ? byKey : Long.compare(sequence, other.sequence);
+        }
+    }
+}
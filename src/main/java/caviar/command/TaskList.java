@@ -2,16 +2,17 @@ package caviar.command;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.RandomAccess;
 import caviar.exception.CaviarException;
 import caviar.storage.Storage;
 import caviar.task.Deadline;
-import caviar.task.Event;
 import caviar.task.Task;
+import caviar.task.TaskStore;
 
 /**
  * Represents a list of tasks that can be modified and stored.
@@ -20,8 +21,18 @@ import caviar.task.Task;
  * and storage operations.</p>
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DISPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy");
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private List<Task> tasks; // Changed only while holding its monitor, which write-behind storage copies under
+    private final List<Task> taskView = new TaskView();
     private Storage storage;
+    private DateIndex dateIndex; // Built on the first date query
+    private KeywordIndex keywordIndex; // Built on the first find
+    private SortIndex sortIndex; // Built on the first sort
+    private List<Runnable> undoLog; // Only kept during a transaction
+    private List<Runnable> pendingRecords; // Storage records held back until the transaction commits
 
     /**
      * Constructs an empty {@code TaskList} without storage.
@@ -45,82 +56,94 @@ public class TaskList {
 
     /**
      * Lists all tasks in the current task list.
-     * Displays a message if the task list is empty.
+     *
+     * @return The numbered tasks, or a message if the task list is empty.
+     */
+    public String listTasks() {
+        return formatList(tasks);
+    }
+
+    /**
+     * Formats the response to {@link #listTasks()} for the given tasks.
      */
-    public void listTasks() {
+    static String formatList(List<Task> tasks) {
         if (tasks.isEmpty()) {
-            System.out.println("    Roe..? No tasks in the list yet.");
-            return;
+            return "    Roe..? No tasks in the list yet.";
         }
-        System.out.println("    Roe! Here are the tasks in your list:");
+        StringBuilder response = new StringBuilder("    Roe! Here are the tasks in your list:");
         for (int i = 0; i < tasks.size(); i++) {
-            System.out.println("    " + (i + 1) + "." + tasks.get(i));
+            response.append(NEW_LINE).append("    ").append(i + 1).append('.').append(tasks.get(i));
         }
+        return response.toString();
     }
 
     /**
-     * Saves the tasks to storage.
+     * Adds a task to the end of the list.
+     *
+     * <p>The change is recorded in storage and written out on the next {@link #saveTasks()}.</p>
      *
-     * @throws IOException If an error occurs during saving.
+     * @param task The task to add.
+     * @return The confirmation to show the user.
      */
-    public void addTask(Task task) {
-        tasks.add(task);
-        System.out.println("    Roe! I've added this task:");
-        System.out.println("      " + task);
-        System.out.println(
-            "    Now you have " + tasks.size() + " task" + (tasks.size() > 1 ? "s" : "") + " in the list. Roe roe.");
-
-        if (storage != null) {
-            try {
-                storage.save(tasks);
-            } catch (IOException e) {
-                System.out.println("roe..!! Error saving task.");
-                e.printStackTrace(); // Debugging
+    public String addTask(Task task) {
+        Task added;
+        synchronized (tasks) {
+            if (tasks instanceof TaskStore) {
+                ((TaskStore) tasks).append(task); // Kept in the columns, like the tasks loaded
+            } else {
+                tasks.add(task);
             }
+            added = tasks.get(tasks.size() - 1);
         }
+        indexAppended(added);
+        if (undoLog != null) {
+            undoLog.add(() -> tasks.remove(tasks.size() - 1));
+        }
+        record(() -> storage.recordAdd(task));
+        return "    Roe! I've added this task:" + NEW_LINE
+            + "      " + task + NEW_LINE
+            + "    Now you have " + tasks.size() + " task" + (tasks.size() > 1 ? "s" : "") + " in the list. Roe roe.";
     }
 
     /**
      * Marks the specified task as done.
      *
      * @param index The index of the task to mark as done.
+     * @return The confirmation to show the user.
      * @throws CaviarException If the index is out of range.
      */
-    public void markTask(int index) throws CaviarException {
+    public String markTask(int index) throws CaviarException {
         if (index < 0 || index >= tasks.size()) {
             throw new CaviarException("No such task exists, roe..!!");
         }
-        tasks.get(index).markAsDone();
-        System.out.println("    Roe! I've marked this task as done:");
-        System.out.println("      " + tasks.get(index));
-        try {
-            saveTasks();
-        } catch (IOException e) {
-            System.out.println("roe..!! Error saving task.");
+        logUndoOfStatus(tasks.get(index));
+        synchronized (tasks) {
+            tasks.get(index).markAsDone();
         }
+        record(() -> storage.recordMark(index));
+        return "    Roe! I've marked this task as done:" + NEW_LINE + "      " + tasks.get(index);
     }
 
     /**
      * Marks the specified task as not done.
      *
-     * <p>If the storage is available, this method also updates the tasks in the
-     * storage file.</p>
+     * <p>If the storage is available, this method also records the change so that it is
+     * written out on the next {@link #saveTasks()}.</p>
      *
      * @param index The index of the task to mark as not done.
+     * @return The confirmation to show the user.
      * @throws CaviarException If the index is out of range (invalid task index).
      */
-    public void unmarkTask(int index) throws CaviarException {
+    public String unmarkTask(int index) throws CaviarException {
         if (index < 0 || index >= tasks.size()) {
             throw new CaviarException("No such task exists, roe..!!");
         }
-        tasks.get(index).markAsNotDone();
-        System.out.println("    Roe! I've marked this task as not done yet:");
-        System.out.println("      " + tasks.get(index));
-        try {
-            saveTasks();
-        } catch (IOException e) {
-            System.out.println("roe..!! Error saving task.");
+        logUndoOfStatus(tasks.get(index));
+        synchronized (tasks) {
+            tasks.get(index).markAsNotDone();
         }
+        record(() -> storage.recordUnmark(index));
+        return "    Roe! I've marked this task as not done yet:" + NEW_LINE + "      " + tasks.get(index);
     }
 
     /**
@@ -135,31 +158,36 @@ public class TaskList {
     /**
      * Removes a task from the list based on its index.
      *
-     * <p>If the storage is available, this method also updates the tasks in the
-     * storage file.</p>
+     * <p>If the storage is available, this method also records the change so that it is
+     * written out on the next {@link #saveTasks()}.</p>
      *
      * @param index The index of the task to remove.
+     * @return The confirmation to show the user.
      * @throws CaviarException If the index is out of range (invalid task index).
      */
-    public void deleteTask(int index) throws CaviarException {
+    public String deleteTask(int index) throws CaviarException {
         if (index < 0 || index >= tasks.size()) {
             throw new CaviarException("No such task exists, roe..!!");
         }
-        Task removedTask = tasks.remove(index);
-        System.out.println("    Roe! I've removed this task:");
-        System.out.println("      " + removedTask);
-        System.out.println("    Now you have " + tasks.size() + " tasks in the list. Roe roe.");
-        try {
-            saveTasks();
-        } catch (IOException e) {
-            System.out.println("roe..!! Error saving task.");
+        Task removedTask;
+        synchronized (tasks) {
+            removedTask = tasks.remove(index);
+        }
+        unindexRemoved(index, removedTask);
+        if (undoLog != null) {
+            undoLog.add(() -> tasks.add(index, removedTask));
         }
+        record(() -> storage.recordDelete(index));
+        return "    Roe! I've removed this task:" + NEW_LINE
+            + "      " + removedTask + NEW_LINE
+            + "    Now you have " + tasks.size() + " tasks in the list. Roe roe.";
     }
 
     /**
-     * Saves all tasks to the underlying storage.
+     * Saves the changes made since the last save to the underlying storage.
      *
-     * <p>If no storage is set (i.e., {@code storage == null}), this method does nothing.</p>
+     * <p>If no storage is set (i.e., {@code storage == null}) or nothing has changed,
+     * this method does nothing.</p>
      *
      * @throws IOException If an I/O error occurs while writing tasks to the storage file.
      */
@@ -167,11 +195,57 @@ public class TaskList {
         if (storage == null) {
             return;
         }
-        try {
-            storage.save(tasks);
-        } catch (IOException e) {
-            System.out.println("roe..!! Error saving task.");
+        storage.flush(tasks);
+    }
+
+    /**
+     * Starts a transaction, after which every change made through this class's methods can be undone
+     * with {@link #rollbackTransaction()}. Changes made directly on {@link #getTasks()} are not covered.
+     * The changes are only recorded in storage once the transaction commits.
+     *
+     * @throws IllegalStateException If a transaction is already in progress.
+     */
+    public void beginTransaction() {
+        if (undoLog != null) {
+            throw new IllegalStateException("A transaction is already in progress");
         }
+        undoLog = new ArrayList<>();
+        pendingRecords = new ArrayList<>();
+    }
+
+    /**
+     * Ends the current transaction, keeping its changes and recording them in storage.
+     */
+    public void commitTransaction() {
+        List<Runnable> records = pendingRecords;
+        undoLog = null;
+        pendingRecords = null;
+        if (records != null) {
+            for (Runnable record : records) {
+                record.run();
+            }
+        }
+    }
+
+    /**
+     * Ends the current transaction, undoing its changes. Storage never sees them.
+     */
+    public void rollbackTransaction() {
+        if (undoLog == null) {
+            return;
+        }
+        List<Runnable> log = undoLog;
+        undoLog = null;
+        pendingRecords = null;
+        if (log.isEmpty()) {
+            return;
+        }
+        synchronized (tasks) {
+            for (int i = log.size() - 1; i >= 0; i--) {
+                log.get(i).run();
+            }
+        }
+        clearIndexes();
     }
 
     /**
@@ -181,178 +255,323 @@ public class TaskList {
      * @return A list of matching tasks.
      */
     public List<Task> findTasks(String keyword) {
-        List<Task> matchingTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
-                matchingTasks.add(task);
-            }
+        if (keywordIndex == null) {
+            checkIndexBuildable();
+            keywordIndex = new KeywordIndex(tasks);
         }
-        return matchingTasks;
+        return keywordIndex.find(keyword);
     }
 
     /**
      * Returns the list of tasks.
      *
+     * <p>Changes made through the returned list are reflected in the search indexes, but are not
+     * recorded in storage.</p>
+     *
      * @return List of tasks.
      */
-    public ArrayList<Task> getTasks() {
-        return tasks;
+    public List<Task> getTasks() {
+        return taskView;
     }
 
     /**
-     * Sorts tasks by a user-chosen option:
+     * Shows the tasks sorted by a user-chosen option, without changing their order in the list:
      *   1 = chronologically, A→Z
      *   2 = reverse, Z→A
+     *
+     * @return The sorted tasks, or a message if the option is invalid.
      */
-    public void sortTasksByOption(int option) {
+    public String sortTasksByOption(int option) {
         if (option != 1 && option != 2) {
-            System.out.println("Invalid sort option. Please enter 1 or 2.");
-            return;
+            return "Invalid sort option. Please enter 1 or 2.";
         }
-
-        // User want chronological order with option 1
-        Comparator<Task> baseComparator = buildBaseComparator();
-
-        // User want reversed chronological order with option 2
-        if (option == 2) {
-            baseComparator = baseComparator.reversed();
-        }
-
-        tasks.sort(baseComparator);
-        printSortedTasks();
-    }
-
-    private LocalDateTime getDateTimeIfAny(Task t) {
-        if (t instanceof Deadline) {
-            return ((Deadline) t).getBy();
-        } else if (t instanceof Event) {
-            return ((Event) t).getFrom();
-        }
-        return null; // Todo has no date/time
-    }
-
-    private Comparator<Task> buildBaseComparator() {
-        return (t1, t2) -> {
-            LocalDateTime dt1 = getDateTimeIfAny(t1);
-            LocalDateTime dt2 = getDateTimeIfAny(t2);
-
-            // Compare both tasks that has date/time
-            if (dt1 != null && dt2 != null) {
-                return dt1.compareTo(dt2);
-            }
-            // One task out of the two has date/time, then it goes first
-            if (dt1 != null && dt2 == null) {
-                return -1;
-            }
-            if (dt1 == null && dt2 != null) {
-                return 1;
-            }
-
-            // Default, compare by description
-            return t1.getDescription().compareToIgnoreCase(t2.getDescription());
-        };
+        return formatNumbered("Here are your tasks after sorting:", getSortIndex().getSorted(null, option == 2));
     }
 
     /**
      * Sorts tasks based on their type and a specified sorting option.
      *
-     * <p>This method filters tasks by the given type ('todo', 'deadline', or 'event') and sorts them
-     * according to the specified option. The sorting options are:
+     * <p>This method shows the tasks of the given type ('todo', 'deadline', or 'event') sorted
+     * according to the specified option, without changing their order in the list. The sorting options are:
      * <ul>
      *   <li>1: Sort in ascending order.</li>
      *   <li>2: Sort in descending order.</li>
      * </ul>
-     * If the task type is invalid or the sorting option is neither 1 nor 2, an appropriate message is displayed.</p>
+     * If the task type is invalid or the sorting option is neither 1 nor 2, an appropriate message is returned.</p>
      *
      * @param type   The type of tasks to sort ('todo', 'deadline', or 'event').
      * @param option The sorting option: 1 for ascending, 2 for descending.
+     * @return The sorted tasks of that type, or a message if there are none or the arguments are invalid.
      */
-    public void sortTasksByType(String type, int option) {
+    public String sortTasksByType(String type, int option) {
         if (!isValidType(type)) {
-            System.out.println("Unknown task type. Use 'todo', 'deadline', or 'event'.");
-            return;
+            return "Unknown task type. Use 'todo', 'deadline', or 'event'.";
         }
         if (option != 1 && option != 2) {
-            System.out.println("Invalid sort option. Please enter 1 or 2.");
-            return;
+            return "Invalid sort option. Please enter 1 or 2.";
         }
 
-        // Store tasks of the chosen type
-        List<Task> filteredTasks = filterTasksByType(type);
-
-        // Sort tasks using the same base comparator
-        Comparator<Task> baseComparator = buildBaseComparator();
-        if (option == 2) {
-            baseComparator = baseComparator.reversed();
-        }
-        filteredTasks.sort(baseComparator);
-
-        printFilteredTasks(filteredTasks, type, option);
+        return formatFilteredTasks(getSortIndex().getSorted(type, option == 2), type, option);
     }
 
     private boolean isValidType(String type) {
         return type.equals("todo") || type.equals("deadline") || type.equals("event");
     }
 
-    private List<Task> filterTasksByType(String type) {
-        List<Task> result = new ArrayList<>();
-        for (Task t : tasks) {
-            if (type.equals("todo") && t instanceof caviar.task.Todo) {
-                result.add(t);
-            } else if (type.equals("deadline") && t instanceof caviar.task.Deadline) {
-                result.add(t);
-            } else if (type.equals("event") && t instanceof caviar.task.Event) {
-                result.add(t);
-            }
-        }
-        return result;
-    }
-
-    private void printFilteredTasks(List<Task> filtered, String type, int option) {
+    private String formatFilteredTasks(List<Task> filtered, String type, int option) {
         if (filtered.isEmpty()) {
-            System.out.println("No " + type + " tasks found to sort.");
-            return;
+            return "No " + type + " tasks found to sort.";
         }
         String orderName = (option == 1) ? "chronologically, A→Z" : "reverse, Z→A";
-        System.out.println("Here are your " + type + " tasks sorted (" + orderName + "):");
-        for (int i = 0; i < filtered.size(); i++) {
-            System.out.println("  " + (i + 1) + ". " + filtered.get(i));
-        }
+        return formatNumbered("Here are your " + type + " tasks sorted (" + orderName + "):", filtered);
     }
-    private void printSortedTasks() {
-        System.out.println("Here are your tasks after sorting:");
-        for (int i = 0; i < tasks.size(); i++) {
-            System.out.println("  " + (i + 1) + ". " + tasks.get(i));
+
+    private String formatNumbered(String heading, List<Task> list) {
+        StringBuilder response = new StringBuilder(heading);
+        for (int i = 0; i < list.size(); i++) {
+            response.append(NEW_LINE).append("  ").append(i + 1).append(". ").append(list.get(i));
         }
+        return response.toString();
     }
 
     /**
      * Shows all deadlines that occur on the specified date.
      *
-     * <p>If no matching deadlines are found, a message is displayed instead.</p>
+     * <p>If no matching deadlines are found, a message is shown instead.</p>
      *
      * @param dateStr The date string in {@code yyyy-MM-dd} format.
+     * @return The deadlines on that date, or a message if there are none or the date is invalid.
      */
-    public void showTasksOnDate(String dateStr) {
+    public String showTasksOnDate(String dateStr) {
+        LocalDate targetDate;
         try {
-            LocalDate targetDate = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            boolean found = false;
-            System.out.println(
-                "Roe. Deadlines for " + targetDate.format(DateTimeFormatter.ofPattern("d MMM yyyy")) + ":");
-            for (Task t : tasks) {
-                if (t instanceof Deadline) {
-                    Deadline d = (Deadline) t;
-                    if (d.getBy().toLocalDate().equals(targetDate)) {
-                        System.out.println("  " + d);
-                        found = true;
-                    }
-                }
+            targetDate = LocalDate.parse(dateStr, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return "Invalid date format. Use 'yyyy-MM-dd'.";
+        }
+        return formatDeadlines("Roe. Deadlines for " + targetDate.format(DISPLAY_DATE_FORMAT) + ":",
+            getDueBetween(targetDate, targetDate), "No deadlines on this date.");
+    }
+
+    /**
+     * Shows all deadlines that occur between the specified dates, inclusive, in date order.
+     *
+     * <p>If no matching deadlines are found, a message is shown instead.</p>
+     *
+     * @param fromStr The first date of the range in {@code yyyy-MM-dd} format.
+     * @param toStr   The last date of the range in {@code yyyy-MM-dd} format.
+     * @return The deadlines in the range, or a message if there are none or the dates are invalid.
+     */
+    public String showTasksBetween(String fromStr, String toStr) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(fromStr, DATE_FORMAT);
+            to = LocalDate.parse(toStr, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return "Invalid date format. Use 'yyyy-MM-dd'.";
+        }
+        if (from.isAfter(to)) {
+            return "The start date must not be after the end date, roe..!";
+        }
+        return formatDeadlines("Roe. Deadlines from " + from.format(DISPLAY_DATE_FORMAT)
+            + " to " + to.format(DISPLAY_DATE_FORMAT) + ":", getDueBetween(from, to),
+            "No deadlines in this period.");
+    }
+
+    /**
+     * Finds deadlines due between the specified dates, inclusive.
+     *
+     * @param from The first date of the range.
+     * @param to   The last date of the range.
+     * @return The matching deadlines, ordered by date and then by their position in the list.
+     */
+    public List<Deadline> findDeadlinesBetween(LocalDate from, LocalDate to) {
+        return getDueBetween(from, to);
+    }
+
+    private List<Deadline> getDueBetween(LocalDate from, LocalDate to) {
+        return from.equals(to) ? getDateIndex().getDueOn(from) : getDateIndex().getDueBetween(from, to);
+    }
+
+    private String formatDeadlines(String heading, List<Deadline> deadlines, String emptyMessage) {
+        if (deadlines.isEmpty()) {
+            return heading + NEW_LINE + emptyMessage;
+        }
+        StringBuilder response = new StringBuilder(heading);
+        for (Deadline d : deadlines) {
+            response.append(NEW_LINE).append("  ").append(d);
+        }
+        return response.toString();
+    }
+
+    /**
+     * Builds any index that is not built yet, so later queries only read shared state.
+     */
+    void buildIndexes() {
+        if (dateIndex == null) {
+            dateIndex = new DateIndex(tasks);
+        }
+        if (keywordIndex == null) {
+            keywordIndex = new KeywordIndex(tasks);
+        }
+        if (sortIndex == null) {
+            sortIndex = new SortIndex(tasks);
+        }
+    }
+
+    /**
+     * Returns whether a query may build an index it finds missing. Subclasses whose queries may run while
+     * the list is being changed build every index after each change instead, and return {@code false}.
+     */
+    boolean isIndexBuiltOnQuery() {
+        return true;
+    }
+
+    /**
+     * Returns whether the keyword index is built and holds mostly deleted tasks. Subclasses that do not build
+     * indexes on query rebuild it through {@link #replaceKeywordIndex(KeywordIndex)} instead.
+     */
+    boolean isKeywordIndexMostlyDeleted() {
+        return keywordIndex != null && keywordIndex.isMostlyDeleted();
+    }
+
+    /**
+     * Replaces the keyword index with one built from the tasks as they are now.
+     */
+    void replaceKeywordIndex(KeywordIndex index) {
+        keywordIndex = index;
+    }
+
+    private void checkIndexBuildable() {
+        if (!isIndexBuiltOnQuery()) {
+            throw new IllegalStateException("The index is being rebuilt");
+        }
+    }
+
+    private void indexAppended(Task task) {
+        if (dateIndex != null) {
+            dateIndex.add(task);
+        }
+        if (keywordIndex != null) {
+            keywordIndex.add(task);
+        }
+        if (sortIndex != null) {
+            sortIndex.add(task);
+        }
+    }
+
+    private void unindexRemoved(int index, Task task) {
+        if (dateIndex != null) {
+            dateIndex.remove(task);
+        }
+        if (keywordIndex != null) {
+            keywordIndex.remove(index);
+            if (keywordIndex.isMostlyDeleted() && isIndexBuiltOnQuery()) {
+                keywordIndex = null; // Rebuilt without the deleted tasks on the next find
             }
-            if (!found) {
-                System.out.println("No deadlines on this date.");
+        }
+        if (sortIndex != null) {
+            sortIndex.remove(task, index, tasks);
+        }
+    }
+
+    /**
+     * Records a change in storage, or holds it back until the current transaction commits.
+     */
+    private void record(Runnable change) {
+        if (storage == null) {
+            return;
+        }
+        if (pendingRecords != null) {
+            pendingRecords.add(change);
+        } else {
+            change.run();
+        }
+    }
+
+    private void logUndoOfStatus(Task task) {
+        if (undoLog == null) {
+            return;
+        }
+        boolean wasDone = task.isDone();
+        undoLog.add(() -> {
+            if (wasDone) {
+                task.markAsDone();
+            } else {
+                task.markAsNotDone();
+            }
+        });
+    }
+
+    private void clearIndexes() {
+        dateIndex = null;
+        keywordIndex = null;
+        sortIndex = null;
+    }
+
+    private DateIndex getDateIndex() {
+        if (dateIndex == null) {
+            checkIndexBuildable();
+            dateIndex = new DateIndex(tasks);
+        }
+        return dateIndex;
+    }
+
+    private SortIndex getSortIndex() {
+        if (sortIndex == null) {
+            checkIndexBuildable();
+            sortIndex = new SortIndex(tasks);
+        }
+        return sortIndex;
+    }
+
+    /**
+     * View of the task list returned by {@link #getTasks()} that keeps the indexes up to date.
+     */
+    private class TaskView extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            return tasks.get(index);
+        }
+
+        @Override
+        public Task set(int index, Task task) {
+            Task previous;
+            synchronized (tasks) {
+                previous = tasks.set(index, task);
             }
-        } catch (Exception e) {
-            System.out.println("Invalid date format. Use 'yyyy-MM-dd'.");
+            clearIndexes();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Task task) {
+            synchronized (tasks) {
+                tasks.add(index, task);
+            }
+            modCount++;
+            if (index == tasks.size() - 1) {
+                indexAppended(task);
+            } else {
+                clearIndexes(); // An insertion before other tasks changes their relative order
+            }
+        }
+
+        @Override
+        public Task remove(int index) {
+            Task removed;
+            synchronized (tasks) {
+                removed = tasks.remove(index);
+            }
+            modCount++;
+            unindexRemoved(index, removed);
+            return removed;
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
         }
     }
 }
@@ -0,0 +1,19 @@
+package caviar.gui;
+
+import javafx.scene.image.Image;
+
+/**
+ * The pictures shown next to messages, decoded once and shared by every dialog box that shows them.
+ */
+final class Avatars {
+    static final Image USER = load("/images/User.jpg");
+    static final Image CAVIAR = load("/images/Caviar.png");
+
+    private Avatars() {
+        // Not meant to be instantiated
+    }
+
+    private static Image load(String resource) {
+        return new Image(Avatars.class.getResourceAsStream(resource));
+    }
+}
@@ -1,12 +1,7 @@
 package caviar.gui;
 
-import java.io.IOException;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -14,50 +9,80 @@ import javafx.scene.layout.HBox;
 
 /**
  * Represents a dialog box containing text and an image.
+ *
+ * <p>A dialog box can be switched between messages, so a list cell can keep reusing the same one. Its nodes are
+ * built in code rather than loaded from FXML, which would parse and reflect over the layout again for every box.</p>
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        dialog.setText(text);
-        displayPicture.setImage(img);
+    private static final String USER_STYLE = "user-label";
+    private static final String CAVIAR_STYLE = "bot-label";
+    private static final double PICTURE_SIZE = 50.0;
+    private static final double PADDING = 10.0;
+
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+
+    private DialogBox() {
+        dialog.setId("dialog");
+        dialog.setWrapText(true);
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        setPadding(new Insets(PADDING));
+        getChildren().setAll(dialog, displayPicture);
     }
 
-    private void ensureRight() {
+    /**
+     * Shows a message from the user: the text on the right, followed by the picture.
+     *
+     * @param text The message.
+     * @param img  The user's picture.
+     */
+    void showUserMessage(String text, Image img) {
+        show(text, img);
+        if (getChildren().get(0) != dialog) {
+            getChildren().setAll(dialog, displayPicture);
+        }
         setAlignment(Pos.TOP_RIGHT);
+        useStyleClass(USER_STYLE);
     }
 
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(getChildren());
-        FXCollections.reverse(tmp);
-        getChildren().setAll(tmp);
+    /**
+     * Shows a message from Caviar: the picture on the left, followed by the text.
+     *
+     * @param text The message.
+     * @param img  Caviar's picture.
+     */
+    void showCaviarMessage(String text, Image img) {
+        show(text, img);
+        if (getChildren().get(0) != displayPicture) {
+            getChildren().setAll(displayPicture, dialog);
+        }
         setAlignment(Pos.TOP_LEFT);
-        dialog.getStyleClass().add("bot-label");
+        useStyleClass(CAVIAR_STYLE);
+    }
+
+    private void show(String text, Image img) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+    }
 
+    private void useStyleClass(String styleClass) {
+        if (!dialog.getStyleClass().contains(styleClass)) {
+            dialog.getStyleClass().removeAll(USER_STYLE, CAVIAR_STYLE);
+            dialog.getStyleClass().add(styleClass);
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.ensureRight();
-        db.dialog.getStyleClass().add("user-label");
+        var db = new DialogBox();
+        db.showUserMessage(text, img);
         return db;
     }
 
     public static DialogBox getCaviarDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        db.dialog.getStyleClass().add("bot-label");
+        var db = new DialogBox();
+        db.showCaviarMessage(text, img);
         return db;
     }
 }
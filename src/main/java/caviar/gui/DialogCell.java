@@ -0,0 +1,44 @@
+package caviar.gui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+/**
+ * A cell of the conversation list that shows a message as a {@link DialogBox}.
+ *
+ * <p>The list only creates enough cells to fill its viewport and reuses them as it scrolls, so each cell builds
+ * its dialog box once and only swaps the text, picture and side when it is given another message.</p>
+ */
+class DialogCell extends ListCell<Message> {
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final DialogBox dialogBox = DialogBox.getCaviarDialog("", null);
+
+    /**
+     * Constructs a cell for the given list.
+     *
+     * @param listView The list the cell belongs to.
+     */
+    DialogCell(ListView<Message> listView) {
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // Without a fixed width, the label would not wrap and every cell would be as wide as its longest line
+        dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+        dialogBox.setMaxWidth(USE_PREF_SIZE);
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        if (message.isUser()) {
+            dialogBox.showUserMessage(message.getText(), Avatars.USER);
+        } else {
+            dialogBox.showCaviarMessage(message.getText(), Avatars.CAVIAR);
+        }
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,61 @@
+package caviar.gui;
+
+import java.util.Locale;
+
+/**
+ * Keeps statistics on the time between frames of the window, as a measure of how responsive it is.
+ *
+ * <p>JavaFX draws a frame about every 16 ms, unless the application thread is busy. Any work done on that thread,
+ * such as running a command that saves a large task file, shows up here as a long frame.</p>
+ */
+class FrameStats {
+    /** Frames that take longer than this are counted as stalls, which a user would notice. */
+    static final long STALL_THRESHOLD_NANOS = 50_000_000L;
+
+    private long lastFrameNanos = -1;
+    private long frameCount;
+    private long totalFrameNanos;
+    private long longestFrameNanos;
+    private long stallCount;
+
+    /**
+     * Records that a frame was drawn.
+     *
+     * @param nowNanos The time the frame was drawn, in nanoseconds, as given to an {@code AnimationTimer}.
+     */
+    void recordFrame(long nowNanos) {
+        if (lastFrameNanos >= 0) {
+            long frameNanos = nowNanos - lastFrameNanos;
+            frameCount++;
+            totalFrameNanos += frameNanos;
+            longestFrameNanos = Math.max(longestFrameNanos, frameNanos);
+            if (frameNanos > STALL_THRESHOLD_NANOS) {
+                stallCount++;
+            }
+        }
+        lastFrameNanos = nowNanos;
+    }
+
+    long getFrameCount() {
+        return frameCount;
+    }
+
+    long getLongestFrameNanos() {
+        return longestFrameNanos;
+    }
+
+    long getStallCount() {
+        return stallCount;
+    }
+
+    /**
+     * Returns a one-line summary of the frames recorded so far.
+     *
+     * @return The number of frames, their average and longest time, and how many of them were stalls.
+     */
+    String describe() {
+        double averageMillis = frameCount == 0 ? 0 : totalFrameNanos / 1e6 / frameCount;
+        return String.format(Locale.ROOT, "Frames: %d, average %.1f ms, longest %.1f ms, %d over %d ms",
+            frameCount, averageMillis, longestFrameNanos / 1e6, stallCount, STALL_THRESHOLD_NANOS / 1_000_000);
+    }
+}
@@ -2,7 +2,6 @@ package caviar.gui;
 
 import java.io.IOException;
 import caviar.Caviar;
-import caviar.exception.CaviarException;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -14,14 +13,11 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
 
-    private Caviar caviar;
+    private MainWindow controller;
 
     @Override
-    public void start(Stage stage) throws CaviarException {
+    public void start(Stage stage) {
         try {
-            // Initialize your chatbot with a data file
-            caviar = new Caviar("data/tasks.txt");
-
             // Load FXML
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
@@ -30,14 +26,21 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
 
-            // Inject the chatbot into the MainWindow controller
-            MainWindow controller = fxmlLoader.getController();
-            controller.setCaviar(caviar);
-
             stage.setTitle("Caviar Chatbot");
             stage.show();
+
+            // Load the tasks in the background, so a large task file does not hold up the window
+            controller = fxmlLoader.getController();
+            controller.loadCaviar(() -> new Caviar("data/tasks.txt"));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
 }
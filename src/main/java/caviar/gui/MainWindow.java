@@ -1,42 +1,99 @@
 package caviar.gui;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import caviar.Caviar;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 /**
  * Controller for the main GUI of Caviar.
+ *
+ * <p>The conversation is shown in a {@link ListView}, which only lays out the messages in view and recycles
+ * their cells while scrolling. Only the latest {@value #MAX_MESSAGES} messages are kept, and a message longer
+ * than {@value #MAX_LINES_PER_MESSAGE} lines is cut short, so long sessions and large lists do not slow the
+ * window down or use ever more memory.</p>
+ *
+ * <p>Commands run one at a time on a worker thread, in the order they were entered, and their responses are
+ * shown on the JavaFX application thread as they complete. Saving a large task file therefore no longer freezes
+ * the window, and more commands can be typed while one is running; a busy indicator shows that some are still
+ * pending. Run with {@code -Dcaviar.frameStats=true} to print how long the window's frames took on exit.</p>
+ *
+ * <p>The window can be shown before Caviar has loaded its tasks: {@link #loadCaviar} loads them on the worker
+ * thread, so commands entered in the meantime simply wait their turn behind the load. Run with
+ * {@code -Dcaviar.startupStats=true} to print when the first frame was drawn and when the tasks were loaded.</p>
  */
 public class MainWindow extends AnchorPane {
+    private static final int MAX_MESSAGES = 1000;
+    private static final int MAX_LINES_PER_MESSAGE = 500;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final boolean IS_REPORTING_FRAME_STATS = Boolean.getBoolean("caviar.frameStats");
+    private static final boolean IS_REPORTING_STARTUP_STATS = Boolean.getBoolean("caviar.startupStats");
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
-    private Caviar caviar;
+    private volatile Caviar caviar;
 
-    private final Image userImage = new Image(this.getClass().getResourceAsStream("/images/User.jpg"));
-    private final Image caviarImage = new Image(this.getClass().getResourceAsStream("/images/Caviar.png"));
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "caviar-gui-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final FrameStats frameStats = new FrameStats();
+    private final StartupMetrics startupMetrics = new StartupMetrics();
+    private AnimationTimer frameTimer;
+    private int pendingCommandCount; // Only used on the JavaFX application thread
+    private volatile boolean isExitRequested;
 
     /**
      * Initializes the controller after its root element has been completely processed.
      *
-     * <p>This method sets up the necessary bindings between the scroll pane and the dialog container
-     * and displays a welcome message to the user upon application startup.</p>
+     * <p>This method sets up how the conversation list shows messages and displays a welcome message
+     * to the user upon application startup.</p>
      */
     @FXML
     public void initialize() {
-        bindScrollPaneToDialogContainer();
+        dialogList.setCellFactory(listView -> new DialogCell(listView));
+        dialogList.setFocusTraversable(false);
+        busyIndicator.setVisible(false);
+        if (IS_REPORTING_FRAME_STATS) {
+            frameTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    frameStats.recordFrame(now);
+                }
+            };
+            frameTimer.start();
+        }
+        if (IS_REPORTING_STARTUP_STATS) {
+            // Runs at the first pulse after the window is shown, which is when it is first drawn
+            new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    stop();
+                    startupMetrics.recordFirstFrame(getUptimeMillis());
+                    reportStartupIfComplete();
+                }
+            }.start();
+        }
         displayWelcomeMessage();
     }
 
@@ -49,12 +106,89 @@ public class MainWindow extends AnchorPane {
         this.caviar = caviar;
     }
 
+    /**
+     * Creates the Caviar instance to interact with on the worker thread, so that loading its tasks does not
+     * hold up the window. Commands entered before it is ready are run once it is, in order.
+     *
+     * @param loader Creates the chatbot instance, loading its tasks.
+     */
+    public void loadCaviar(Callable<Caviar> loader) {
+        pendingCommandCount++;
+        busyIndicator.setVisible(true);
+        commandExecutor.execute(() -> {
+            String error = null;
+            try {
+                caviar = loader.call();
+            } catch (Exception e) {
+                error = e.getMessage();
+            }
+            String loadError = error;
+            Platform.runLater(() -> finishLoading(loadError));
+        });
+    }
+
+    /**
+     * Waits for the commands already entered to finish, so that their changes are saved, and stops the worker
+     * thread. Called when the application stops.
+     */
+    public void shutdown() {
+        commandExecutor.shutdown();
+        try {
+            commandExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (frameTimer != null) {
+            frameTimer.stop();
+            System.out.println(frameStats.describe());
+        }
+    }
+
     @FXML
     private void handleUserInput() {
         String input = getUserInput();
-        String response = caviar.getResponseFromCaviar(input);
-
         displayUserMessage(input);
+        clearUserInput();
+
+        pendingCommandCount++;
+        busyIndicator.setVisible(true);
+        commandExecutor.execute(() -> {
+            String response = isExitRequested ? null : getResponse(input);
+            Platform.runLater(() -> showResponse(response));
+        });
+    }
+
+    /**
+     * Runs a command on the worker thread. Once it has said goodbye, the commands still queued are skipped.
+     */
+    private String getResponse(String input) {
+        if (Caviar.isExitCommand(input)) {
+            isExitRequested = true;
+            return "bye"; // Tells showResponse to say goodbye and close the window
+        }
+        if (caviar == null) {
+            return "roe..!! Your tasks could not be loaded, so I cannot do that.";
+        }
+        String response;
+        try {
+            response = caviar.getResponseFromCaviar(input);
+        } catch (RuntimeException e) {
+            String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            response = "roe..!! Something went wrong: " + reason;
+        }
+        return response;
+    }
+
+    /**
+     * Shows the response to a command on the JavaFX application thread. Responses arrive in the order their
+     * commands were entered, as the worker runs them one at a time and {@link Platform#runLater} keeps that order.
+     */
+    private void showResponse(String response) {
+        pendingCommandCount--;
+        busyIndicator.setVisible(pendingCommandCount > 0);
+        if (response == null) { // A command entered after "bye"
+            return;
+        }
 
         if (isBye(response)) {
             displayExitMessage();
@@ -63,7 +197,26 @@ public class MainWindow extends AnchorPane {
         }
 
         displayCaviarMessage(response);
-        clearUserInput();
+    }
+
+    private void finishLoading(String error) {
+        pendingCommandCount--;
+        busyIndicator.setVisible(pendingCommandCount > 0);
+        if (error != null) {
+            displayCaviarMessage(error);
+        }
+        startupMetrics.recordInteractive(getUptimeMillis());
+        reportStartupIfComplete();
+    }
+
+    private void reportStartupIfComplete() {
+        if (IS_REPORTING_STARTUP_STATS && startupMetrics.isComplete()) {
+            System.out.println(startupMetrics.describe());
+        }
+    }
+
+    private static long getUptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
     }
 
     private void displayWelcomeMessage() {
@@ -71,13 +224,6 @@ public class MainWindow extends AnchorPane {
         displayCaviarMessage(welcomeMessage);
     }
 
-    /**
-     * Binds the scrollPane to follow dialogContainer height.
-     */
-    private void bindScrollPaneToDialogContainer() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-    }
-
     private String getUserInput() {
         return userInput.getText().trim();
     }
@@ -87,11 +233,11 @@ public class MainWindow extends AnchorPane {
     }
 
     private void displayUserMessage(String message) {
-        addUserDialog(message, userImage);
+        addMessage(message, true);
     }
 
     private void displayCaviarMessage(String message) {
-        addCaviarDialog(message, caviarImage);
+        addMessage(message, false);
     }
 
     private void displayExitMessage() {
@@ -102,12 +248,28 @@ public class MainWindow extends AnchorPane {
         userInput.clear();
     }
 
-    private void addUserDialog(String message, Image image) {
-        dialogContainer.getChildren().add(DialogBox.getUserDialog(message, image));
+    private void addMessage(String text, boolean isUser) {
+        ObservableList<Message> messages = dialogList.getItems();
+        messages.add(new Message(truncate(text), isUser));
+        if (messages.size() > MAX_MESSAGES) {
+            messages.remove(0, messages.size() - MAX_MESSAGES);
+        }
+        dialogList.scrollTo(messages.size() - 1);
     }
 
-    private void addCaviarDialog(String message, Image image) {
-        dialogContainer.getChildren().add(DialogBox.getCaviarDialog(message, image));
+    /**
+     * Cuts a message down to its first {@value #MAX_LINES_PER_MESSAGE} lines.
+     */
+    private static String truncate(String text) {
+        int end = -1;
+        for (int line = 0; line < MAX_LINES_PER_MESSAGE; line++) {
+            end = text.indexOf('\n', end + 1);
+            if (end < 0) {
+                return text;
+            }
+        }
+        long hiddenLines = text.substring(end + 1).lines().count();
+        return hiddenLines == 0 ? text : text.substring(0, end + 1) + "... and " + hiddenLines + " more lines";
     }
 
     private void closeWindow() {
@@ -0,0 +1,28 @@
+package caviar.gui;
+
+/**
+ * One message in the conversation shown by {@link MainWindow}.
+ */
+class Message {
+    private final String text;
+    private final boolean isUser;
+
+    /**
+     * Constructs a message.
+     *
+     * @param text   The text of the message.
+     * @param isUser Whether the user sent the message, as opposed to Caviar.
+     */
+    Message(String text, boolean isUser) {
+        this.text = text;
+        this.isUser = isUser;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    boolean isUser() {
+        return isUser;
+    }
+}
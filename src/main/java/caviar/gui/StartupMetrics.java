@@ -0,0 +1,57 @@
+package caviar.gui;
+
+/**
+ * Records how long the GUI took to start, counted from when the JVM started.
+ *
+ * <p>The window is shown before the tasks are loaded, so there are two times: the first frame, when the window
+ * is first drawn, and the time it became interactive, when the tasks have been loaded and commands are run
+ * rather than queued.</p>
+ */
+class StartupMetrics {
+    private long firstFrameMillis = -1;
+    private long interactiveMillis = -1;
+
+    /**
+     * Records the first frame, unless one has been recorded already.
+     *
+     * @param uptimeMillis The time since the JVM started, in milliseconds.
+     */
+    void recordFirstFrame(long uptimeMillis) {
+        if (firstFrameMillis < 0) {
+            firstFrameMillis = uptimeMillis;
+        }
+    }
+
+    /**
+     * Records that the tasks have been loaded, unless this has been recorded already.
+     *
+     * @param uptimeMillis The time since the JVM started, in milliseconds.
+     */
+    void recordInteractive(long uptimeMillis) {
+        if (interactiveMillis < 0) {
+            interactiveMillis = uptimeMillis;
+        }
+    }
+
+    /**
+     * Returns whether both times have been recorded.
+     *
+     * @return {@code true} if both the first frame and the time to interactive are known.
+     */
+    boolean isComplete() {
+        return firstFrameMillis >= 0 && interactiveMillis >= 0;
+    }
+
+    /**
+     * Returns a one-line summary of the startup times.
+     *
+     * @return The time to the first frame and to interactive, or "pending" for one not recorded yet.
+     */
+    String describe() {
+        return "Startup: first frame at " + format(firstFrameMillis) + ", interactive at " + format(interactiveMillis);
+    }
+
+    private static String format(long millis) {
+        return millis < 0 ? "pending" : millis + " ms";
+    }
+}
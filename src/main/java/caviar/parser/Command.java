@@ -0,0 +1,31 @@
+package caviar.parser;
+
+/**
+ * The commands understood by {@link Parser}.
+ */
+enum Command {
+    BYE("bye"),
+    LIST("list"),
+    MARK("mark"),
+    UNMARK("unmark"),
+    TODO("todo"),
+    DEADLINE("deadline"),
+    EVENT("event"),
+    DELETE("delete"),
+    FIND("find"),
+    DATE("date"),
+    SORT("sort");
+
+    private final String keyword;
+
+    Command(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the word that invokes this command.
+     */
+    String getKeyword() {
+        return keyword;
+    }
+}
@@ -0,0 +1,77 @@
+package caviar.parser;
+
+import java.util.Arrays;
+
+/**
+ * Splits a command line into a {@link ParsedCommand} without copying any of it.
+ *
+ * <p>The keyword is everything before the first space, as before. It is looked up in a table of
+ * the commands indexed by their first character and compared in place, so no {@code String} is
+ * created or hashed.</p>
+ */
+final class CommandTokenizer {
+    private static final int TABLE_SIZE = 128;
+    private static final Command[][] COMMANDS_BY_FIRST_CHAR = buildTable();
+
+    private CommandTokenizer() {
+    }
+
+    /**
+     * Tokenizes a command line into {@code parsed}.
+     *
+     * @param input  The full command line.
+     * @param parsed The command to fill in. Its command is {@code null} if the keyword is unknown.
+     */
+    static void tokenize(CharSequence input, ParsedCommand parsed) {
+        int length = input.length();
+        int keywordEnd = 0;
+        while (keywordEnd < length && input.charAt(keywordEnd) != ' ') {
+            keywordEnd++;
+        }
+        int argumentStart = keywordEnd < length ? keywordEnd + 1 : length;
+        parsed.set(input, lookUp(input, keywordEnd), argumentStart);
+    }
+
+    /**
+     * Returns the command whose keyword is {@code input[0, keywordEnd)}, or {@code null} if there is none.
+     */
+    private static Command lookUp(CharSequence input, int keywordEnd) {
+        if (keywordEnd == 0 || input.charAt(0) >= TABLE_SIZE) {
+            return null;
+        }
+        Command[] candidates = COMMANDS_BY_FIRST_CHAR[input.charAt(0)];
+        if (candidates == null) {
+            return null;
+        }
+        for (Command candidate : candidates) {
+            if (isKeyword(input, keywordEnd, candidate.getKeyword())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isKeyword(CharSequence input, int keywordEnd, String keyword) {
+        if (keyword.length() != keywordEnd) {
+            return false;
+        }
+        for (int i = 1; i < keywordEnd; i++) {
+            if (input.charAt(i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Command[][] buildTable() {
+        Command[][] table = new Command[TABLE_SIZE][];
+        for (Command command : Command.values()) {
+            char first = command.getKeyword().charAt(0);
+            Command[] candidates = table[first] == null ? new Command[1] : Arrays.copyOf(table[first],
+                table[first].length + 1);
+            candidates[candidates.length - 1] = command;
+            table[first] = candidates;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,184 @@
+package caviar.parser;
+
+/**
+ * A command split into its keyword and arguments by {@link CommandTokenizer}.
+ *
+ * <p>The arguments are kept as offsets into the original input rather than copied, so one instance
+ * can be reused for every command on a thread. Positions taken and returned by the methods below
+ * are offsets into the whole input.</p>
+ */
+final class ParsedCommand {
+    private CharSequence input;
+    private Command command;
+    private int argumentStart;
+
+    /**
+     * Points this command at a new input.
+     *
+     * @param input         The full command line.
+     * @param command       The command named by the input, or {@code null} if there is none.
+     * @param argumentStart The offset at which the arguments begin.
+     */
+    void set(CharSequence input, Command command, int argumentStart) {
+        this.input = input;
+        this.command = command;
+        this.argumentStart = argumentStart;
+    }
+
+    /**
+     * Drops the reference to the last input.
+     */
+    void clear() {
+        set(null, null, 0);
+    }
+
+    Command getCommand() {
+        return command;
+    }
+
+    int getArgumentStart() {
+        return argumentStart;
+    }
+
+    int getArgumentEnd() {
+        return input.length();
+    }
+
+    /**
+     * Returns whether there are no arguments at all, not even whitespace.
+     */
+    boolean hasNoArguments() {
+        return argumentStart == input.length();
+    }
+
+    /**
+     * Returns whether the arguments are empty or only whitespace.
+     */
+    boolean hasBlankArguments() {
+        return trimStart(argumentStart, input.length()) == input.length();
+    }
+
+    /**
+     * Returns the arguments exactly as entered.
+     */
+    String getArguments() {
+        return getText(argumentStart, input.length());
+    }
+
+    /**
+     * Returns the text between the given offsets.
+     */
+    String getText(int start, int end) {
+        return input.subSequence(start, end).toString();
+    }
+
+    /**
+     * Returns the text between the given offsets with leading and trailing whitespace removed,
+     * with the same meaning of whitespace as {@link String#trim()}.
+     */
+    String getTrimmed(int start, int end) {
+        int trimmedStart = trimStart(start, end);
+        return input.subSequence(trimmedStart, trimEnd(trimmedStart, end)).toString();
+    }
+
+    /**
+     * Returns whether the text between the given offsets equals {@code text}, ignoring case.
+     */
+    boolean equalsIgnoreCase(int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = input.charAt(start + i);
+            char other = text.charAt(i);
+            if (c != other && Character.toLowerCase(Character.toUpperCase(c))
+                    != Character.toLowerCase(Character.toUpperCase(other))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the next occurrence of {@code marker} at or after {@code from}.
+     *
+     * @return The offset of the marker, or -1 if it does not occur.
+     */
+    int indexOf(String marker, int from) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(marker, from);
+        }
+        int last = input.length() - marker.length();
+        for (int i = from; i <= last; i++) {
+            if (regionMatches(i, marker)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the text between the given offsets as an integer, without copying it.
+     *
+     * @param isTrimmed Whether to remove leading and trailing whitespace first.
+     * @throws NumberFormatException If the text is not an integer.
+     */
+    int parseInt(int start, int end, boolean isTrimmed) {
+        if (isTrimmed) {
+            start = trimStart(start, end);
+            end = trimEnd(start, end);
+        }
+        return Integer.parseInt(input, start, end, 10);
+    }
+
+    /**
+     * Returns the offset at which the whitespace-separated word starting at or after {@code from} ends,
+     * treating whitespace as the regex {@code \s} does.
+     */
+    int wordEnd(int from, int end) {
+        int i = from;
+        while (i < end && !isRegexWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the offset of the first character at or after {@code from} that is not whitespace as
+     * the regex {@code \s} defines it.
+     */
+    int skipWhitespace(int from, int end) {
+        int i = from;
+        while (i < end && isRegexWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    int trimStart(int start, int end) {
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    int trimEnd(int start, int end) {
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private boolean regionMatches(int offset, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (input.charAt(offset + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
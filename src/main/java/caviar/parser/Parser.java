@@ -1,5 +1,7 @@
 package caviar.parser;
 
+import java.util.ArrayList;
+import java.util.List;
 import caviar.command.TaskList;
 import caviar.exception.CaviarException;
 import caviar.storage.Storage;
@@ -13,13 +15,21 @@ import caviar.ui.Ui;
  * Handles parsing and execution of corresponding command.
  */
 public class Parser {
+    private static final String BY_MARKER = " /by ";
+    private static final String FROM_MARKER = " /from ";
+    private static final String TO_MARKER = " /to ";
+    private static final String[] SORT_TYPES = {"todo", "deadline", "event"};
+
+    /** Reused for every command on a thread, so parsing a command allocates nothing. */
+    private static final ThreadLocal<ParsedCommand> PARSED_COMMAND = ThreadLocal.withInitial(ParsedCommand::new);
 
     /**
      * Parses the user input and executes the corresponding command.
      * <p>
-     * This method extracts the command keyword from the user input and its arguments.
-     * It executes the commands with {@link #executeCommand(String, String, TaskList, Ui)}.
-     * After execution, it ensures the updated task list is saved via {@code saveData()}.
+     * This method splits the user input into the command keyword and its arguments without copying it,
+     * and executes the command with {@link #executeCommand(ParsedCommand, TaskList, Ui)}.
+     * If the command changed the task list, the changes are saved once via {@code saveData()};
+     * read-only commands such as {@code list} and {@code find} do not touch storage.
      * If an invalid command is entered, a {@code CaviarException} is thrown.
      * </p>
      *
@@ -29,19 +39,115 @@ public class Parser {
      * @param storage  The {@code Storage} instance responsible for saving and loading task data.
      * @throws CaviarException If the command is unrecognized or improperly formatted.
      */
-    public static void parseAndExecute(String input, TaskList taskList, Ui ui, Storage storage) throws CaviarException {
+    public static void parseAndExecute(CharSequence input, TaskList taskList, Ui ui, Storage storage)
+            throws CaviarException {
         assert input != null : "Command input cannot be null";
         assert taskList != null : "TaskList cannot be null";
         assert ui != null : "Ui cannot be null";
         assert storage != null : "Storage cannot be null";
 
-        String[] parts = input.split(" ", 2);
-        String command = parts[0];
-        String arguments = (parts.length > 1) ? parts[1] : "";
+        ParsedCommand command = PARSED_COMMAND.get();
+        boolean isModified;
+        try {
+            CommandTokenizer.tokenize(input, command);
+            isModified = executeCommand(command, taskList, ui);
+        } finally {
+            command.clear();
+        }
 
-        executeCommand(command, arguments, taskList, ui);
+        if (isModified) {
+            saveData(taskList, ui);
+        }
+    }
 
-        saveData(taskList, storage, ui); // Handles saving separately
+    /**
+     * Returns whether the input is a {@code bye} command, after which the caller should end the session.
+     * Executing it only says goodbye.
+     *
+     * @param input The full command string entered by the user.
+     * @return {@code true} if the input is {@code bye} in any case, or a command with the {@code bye} keyword.
+     */
+    public static boolean isBye(String input) {
+        if ("bye".equalsIgnoreCase(input.trim())) {
+            return true;
+        }
+        ParsedCommand command = PARSED_COMMAND.get();
+        try {
+            CommandTokenizer.tokenize(input, command);
+            return command.getCommand() == Command.BYE;
+        } finally {
+            command.clear();
+        }
+    }
+
+    /**
+     * Executes a batch of commands and saves the changes once at the end, rather than after every command.
+     * <p>
+     * A {@code bye} command ends the batch. Otherwise every command is executed in order. If a command
+     * fails, its output is the error message and the batch carries on, unless it is transactional: then
+     * every change made by the batch is undone and nothing is saved.
+     * </p>
+     *
+     * @param commands        The commands to execute, e.g. the lines of a script.
+     * @param taskList        The {@code TaskList} instance containing all tasks.
+     * @param ui              The {@code Ui} instance that reports an error saving the batch.
+     * @param storage         The {@code Storage} instance responsible for saving and loading task data.
+     * @param isTransactional Whether a failing command should undo the whole batch.
+     * @return The output of each command that was executed, in order.
+     * @throws CaviarException If the batch is transactional and a command fails. The failure is the cause.
+     */
+    public static List<String> executeBatch(Iterable<? extends CharSequence> commands, TaskList taskList, Ui ui,
+            Storage storage, boolean isTransactional) throws CaviarException {
+        assert commands != null : "Commands cannot be null";
+        assert taskList != null : "TaskList cannot be null";
+        assert storage != null : "Storage cannot be null";
+
+        List<String> outputs = new ArrayList<>();
+        StringBuilder output = new StringBuilder();
+        Ui commandUi = new Ui(output);
+        ParsedCommand command = PARSED_COMMAND.get();
+        boolean isModified = false;
+        boolean isCompleted = false;
+        if (isTransactional) {
+            taskList.beginTransaction();
+        }
+        try {
+            for (CharSequence input : commands) {
+                output.setLength(0);
+                CommandTokenizer.tokenize(input, command);
+                if (command.getCommand() == Command.BYE) {
+                    handleBye(commandUi);
+                    outputs.add(output.toString());
+                    break;
+                }
+                try {
+                    isModified |= executeCommand(command, taskList, commandUi);
+                    outputs.add(output.toString());
+                } catch (CaviarException e) {
+                    if (isTransactional) {
+                        CaviarException failure = new CaviarException("Command " + (outputs.size() + 1)
+                            + " failed, so the batch was rolled back: " + input);
+                        failure.initCause(e);
+                        throw failure;
+                    }
+                    outputs.add(e.getMessage());
+                }
+            }
+            isCompleted = true;
+        } finally {
+            command.clear();
+            if (isTransactional && !isCompleted) {
+                taskList.rollbackTransaction();
+            }
+        }
+
+        if (isTransactional) {
+            taskList.commitTransaction();
+        }
+        if (isModified) {
+            saveData(taskList, ui);
+        }
+        return outputs;
     }
 
     /**
@@ -52,51 +158,52 @@ public class Parser {
      * If the command is unrecognized, a {@code CaviarException} is thrown.
      * </p>
      *
-     * @param command   The command keyword entered by the user (e.g., "list", "mark", "todo").
-     * @param arguments The remaining user input after the command keyword (may be empty).
-     * @param taskList  The {@code TaskList} instance containing all tasks.
-     * @param ui        The {@code Ui} instance responsible for displaying messages.
+     * @param command  The command entered by the user, split into its keyword and arguments.
+     * @param taskList The {@code TaskList} instance containing all tasks.
+     * @param ui       The {@code Ui} instance responsible for displaying messages.
+     * @return {@code true} if the command may have changed the task list.
      * @throws CaviarException If the command is invalid or improperly formatted.
      */
-    private static void executeCommand(String command,
-                                       String arguments,
+    private static boolean executeCommand(ParsedCommand command,
                                        TaskList taskList,
                                        Ui ui) throws CaviarException {
-        switch (command) {
-        case "bye":
-            handleBye(ui);
-            System.exit(0);
-            break;
-        case "list":
-            handleList(taskList);
-            break;
-        case "mark":
-            handleMark(arguments, taskList);
-            break;
-        case "unmark":
-            handleUnmark(arguments, taskList);
-            break;
-        case "todo":
-            handleTodo(arguments, taskList);
-            break;
-        case "deadline":
-            handleDeadline(arguments, taskList);
-            break;
-        case "event":
-            handleEvent(arguments, taskList);
-            break;
-        case "delete":
-            handleDelete(arguments, taskList);
-            break;
-        case "find":
-            handleFind(arguments, taskList);
-            break;
-        case "date":
-            handleDate(arguments, taskList);
-            break;
-        case "sort":
-            handleSort(arguments, taskList);
-            break;
+        if (command.getCommand() == null) {
+            throw new CaviarException("I don't understand roe..?");
+        }
+        switch (command.getCommand()) {
+        case BYE:
+            handleBye(ui); // Ending the session is up to the caller, which checks isBye
+            return false;
+        case LIST:
+            handleList(taskList, ui);
+            return false;
+        case MARK:
+            handleMark(command, taskList, ui);
+            return true;
+        case UNMARK:
+            handleUnmark(command, taskList, ui);
+            return true;
+        case TODO:
+            handleTodo(command, taskList, ui);
+            return true;
+        case DEADLINE:
+            handleDeadline(command, taskList, ui);
+            return true;
+        case EVENT:
+            handleEvent(command, taskList, ui);
+            return true;
+        case DELETE:
+            handleDelete(command, taskList, ui);
+            return true;
+        case FIND:
+            handleFind(command, taskList, ui);
+            return false;
+        case DATE:
+            handleDate(command, taskList, ui);
+            return false;
+        case SORT:
+            handleSort(command, taskList, ui);
+            return false;
         default:
             throw new CaviarException("I don't understand roe..?");
         }
@@ -107,156 +214,180 @@ public class Parser {
         return "bye";
     }
 
-    private static void handleList(TaskList taskList) {
-        taskList.listTasks();
+    private static void handleList(TaskList taskList, Ui ui) {
+        ui.showMessage(taskList.listTasks());
     }
 
-    private static void handleMark(String arguments, TaskList taskList) throws CaviarException {
-        if (arguments.isEmpty()) {
+    private static void handleMark(ParsedCommand command, TaskList taskList, Ui ui) throws CaviarException {
+        if (command.hasNoArguments()) {
             throw new CaviarException("Please specify the task number to mark.");
         }
         try {
-            int index = Integer.parseInt(arguments);
-            taskList.markTask(index - 1); // Convert 1-based user input to 0-based index
+            int index = command.parseInt(command.getArgumentStart(), command.getArgumentEnd(), false);
+            ui.showMessage(taskList.markTask(index - 1)); // Convert 1-based user input to 0-based index
         } catch (NumberFormatException e) {
             throw new CaviarException("Invalid task number format.");
         }
     }
 
-    private static void handleUnmark(String arguments, TaskList taskList) throws CaviarException {
-        if (arguments.isEmpty()) {
+    private static void handleUnmark(ParsedCommand command, TaskList taskList, Ui ui) throws CaviarException {
+        if (command.hasNoArguments()) {
             throw new CaviarException("Please specify the task number to unmark.");
         }
         try {
-            int index = Integer.parseInt(arguments);
-            taskList.unmarkTask(index - 1); // Convert 1-based user input to 0-based index
+            int index = command.parseInt(command.getArgumentStart(), command.getArgumentEnd(), false);
+            ui.showMessage(taskList.unmarkTask(index - 1)); // Convert 1-based user input to 0-based index
         } catch (NumberFormatException e) {
             throw new CaviarException("Invalid task number format.");
         }
     }
 
-    private static void handleTodo(String arguments, TaskList taskList) throws CaviarException {
-        if (arguments.trim().isEmpty()) {
+    private static void handleTodo(ParsedCommand command, TaskList taskList, Ui ui) throws CaviarException {
+        if (command.hasBlankArguments()) {
             throw new CaviarException("The description of a todo cannot be empty.");
         }
-        taskList.addTask(new Todo(arguments));
+        ui.showMessage(taskList.addTask(new Todo(command.getArguments())));
     }
 
-    private static void handleDeadline(String arguments, TaskList taskList) throws CaviarException {
-        if (arguments.isEmpty()) {
+    private static void handleDeadline(ParsedCommand command, TaskList taskList, Ui ui) throws CaviarException {
+        if (command.hasNoArguments()) {
             throw new CaviarException("The description of a deadline cannot be empty.");
         }
 
         // e.g., "return book /by 2025-02-18 1800"
-        String[] parts = arguments.split(" /by ", 2);
-        if (parts.length < 2) {
+        int byMarker = command.indexOf(BY_MARKER, command.getArgumentStart());
+        if (byMarker < 0) {
             throw new CaviarException("Please specify '/by' for deadline. Example:\n"
                 + "  deadline return book /by 2025-02-18 1800");
         }
 
-        String description = parts[0].trim();
-        String by = parts[1].trim();
-        taskList.addTask(new Deadline(description, by));
+        String description = command.getTrimmed(command.getArgumentStart(), byMarker);
+        String by = command.getTrimmed(byMarker + BY_MARKER.length(), command.getArgumentEnd());
+        ui.showMessage(taskList.addTask(new Deadline(description, by)));
     }
 
-    private static void handleEvent(String arguments, TaskList taskList) throws CaviarException {
-        if (arguments.isEmpty()) {
+    private static void handleEvent(ParsedCommand command, TaskList taskList, Ui ui) throws CaviarException {
+        if (command.hasNoArguments()) {
             throw new CaviarException("The description of an event cannot be empty.");
         }
 
         // e.g., "project meeting /from 2025-03-01 10:00 /to 2025-03-01 12:00"
-        String[] fromParts = arguments.split(" /from ", 2);
-        if (fromParts.length < 2) {
+        int fromMarker = command.indexOf(FROM_MARKER, command.getArgumentStart());
+        if (fromMarker < 0) {
             throw new CaviarException("Please specify '/from' for event. Example:\n"
                 + "  event project meeting /from 2025-03-01 10:00 /to 2025-03-01 12:00");
         }
 
-        String description = fromParts[0].trim();
-        String[] toParts = fromParts[1].split(" /to ", 2);
-        if (toParts.length < 2) {
+        String description = command.getTrimmed(command.getArgumentStart(), fromMarker);
+        int fromStart = fromMarker + FROM_MARKER.length();
+        int toMarker = command.indexOf(TO_MARKER, fromStart);
+        if (toMarker < 0) {
             throw new CaviarException("Please specify '/to' for event. Example:\n"
                 + "  event project meeting /from 2025-03-01 10:00 /to 2025-03-01 12:00");
         }
 
-        String from = toParts[0].trim();
-        String to = toParts[1].trim();
-        taskList.addTask(new Event(description, from, to));
+        String from = command.getTrimmed(fromStart, toMarker);
+        String to = command.getTrimmed(toMarker + TO_MARKER.length(), command.getArgumentEnd());
+        ui.showMessage(taskList.addTask(new Event(description, from, to)));
     }
 
-    private static void handleDelete(String arguments, TaskList taskList) throws CaviarException {
-        if (arguments.trim().isEmpty()) {
+    private static void handleDelete(ParsedCommand command, TaskList taskList, Ui ui) throws CaviarException {
+        if (command.hasBlankArguments()) {
             throw new CaviarException("Please specify the task number to delete.");
         }
         try {
-            int index = Integer.parseInt(arguments.trim());
-            taskList.deleteTask(index - 1);
+            int index = command.parseInt(command.getArgumentStart(), command.getArgumentEnd(), true);
+            ui.showMessage(taskList.deleteTask(index - 1));
         } catch (NumberFormatException e) {
             throw new CaviarException("Invalid task number format.");
         }
     }
 
-    private static void handleFind(String arguments, TaskList taskList) {
-        if (arguments.trim().isEmpty()) {
-            System.out.println("Please specify a keyword to find tasks.");
+    private static void handleFind(ParsedCommand command, TaskList taskList, Ui ui) {
+        if (command.hasBlankArguments()) {
+            ui.showMessage("Please specify a keyword to find tasks.");
             return;
         }
-        java.util.List<Task> matchingTasks = taskList.findTasks(arguments.trim());
+        String keyword = command.getTrimmed(command.getArgumentStart(), command.getArgumentEnd());
+        java.util.List<Task> matchingTasks = taskList.findTasks(keyword);
         if (matchingTasks.isEmpty()) {
-            System.out.println("No matching tasks found.");
+            ui.showMessage("No matching tasks found.");
         } else {
-            System.out.println("Here are the matching tasks in your list:");
+            ui.showMessage("Here are the matching tasks in your list:");
             for (int i = 0; i < matchingTasks.size(); i++) {
-                System.out.println((i + 1) + ". " + matchingTasks.get(i));
+                ui.showMessage((i + 1) + ". " + matchingTasks.get(i));
             }
         }
     }
 
-    private static void handleDate(String arguments, TaskList taskList) {
-        if (arguments.trim().isEmpty()) {
-            System.out.println("Please specify a date in yyyy-MM-dd format.");
+    private static void handleDate(ParsedCommand command, TaskList taskList, Ui ui) {
+        if (command.hasBlankArguments()) {
+            ui.showMessage("Please specify a date in yyyy-MM-dd format.");
             return;
         }
-        taskList.showTasksOnDate(arguments.trim());
+        // e.g., "date 2025-02-18" or "date 2025-02-18 2025-02-24"
+        int end = command.trimEnd(command.getArgumentStart(), command.getArgumentEnd());
+        int firstStart = command.trimStart(command.getArgumentStart(), end);
+        int firstEnd = command.wordEnd(firstStart, end);
+        int secondStart = command.skipWhitespace(firstEnd, end);
+        int secondEnd = command.wordEnd(secondStart, end);
+        if (secondStart == end) {
+            ui.showMessage(taskList.showTasksOnDate(command.getText(firstStart, firstEnd)));
+        } else if (secondEnd == end) {
+            ui.showMessage(taskList.showTasksBetween(command.getText(firstStart, firstEnd),
+                command.getText(secondStart, secondEnd)));
+        } else {
+            ui.showMessage("Please specify a date or a date range, e.g. 'date 2025-02-18 2025-02-24'.");
+        }
     }
 
-    private static void handleSort(String arguments, TaskList taskList) {
-        if (arguments.isEmpty()) {
-            printSortOptions();
+    private static void handleSort(ParsedCommand command, TaskList taskList, Ui ui) {
+        if (command.hasBlankArguments()) {
+            printSortOptions(ui);
             return;
         }
 
-        String[] parts = arguments.split("\\s+", 2);
+        int end = command.trimEnd(command.getArgumentStart(), command.getArgumentEnd());
+        int typeStart = command.trimStart(command.getArgumentStart(), end);
+        int typeEnd = command.wordEnd(typeStart, end);
+        int optionStart = command.skipWhitespace(typeEnd, end);
         // If user typed only one token (e.g. "1" or "2"), do the existing "sort all" approach
-        if (parts.length == 1) {
-            handleSortAll(parts[0], taskList);
+        if (optionStart == end) {
+            handleSortAll(command, typeStart, typeEnd, taskList, ui);
             return;
         }
 
         // Otherwise, user typed two tokens: e.g. "deadline 1"
-        String type = parts[0].toLowerCase();
-        String optionStr = parts[1];
+        String type = command.getText(typeStart, typeEnd);
+        for (String sortType : SORT_TYPES) {
+            if (command.equalsIgnoreCase(typeStart, typeEnd, sortType)) {
+                type = sortType;
+                break;
+            }
+        }
 
         try {
-            int option = Integer.parseInt(optionStr);
-            taskList.sortTasksByType(type, option);
+            int option = command.parseInt(optionStart, end, false);
+            ui.showMessage(taskList.sortTasksByType(type, option));
         } catch (NumberFormatException e) {
-            System.out.println("Invalid sort option. Please enter 1 or 2.");
+            ui.showMessage("Invalid sort option. Please enter 1 or 2.");
         }
     }
 
-    private static void handleSortAll(String optionStr, TaskList taskList) {
+    private static void handleSortAll(ParsedCommand command, int optionStart, int optionEnd, TaskList taskList,
+                                      Ui ui) {
         try {
-            int option = Integer.parseInt(optionStr);
-            taskList.sortTasksByOption(option);
+            int option = command.parseInt(optionStart, optionEnd, false);
+            ui.showMessage(taskList.sortTasksByOption(option));
         } catch (NumberFormatException e) {
-            System.out.println("Invalid sort option. Please enter either\n"
+            ui.showMessage("Invalid sort option. Please enter either\n"
                 + "sort 1\n or"
                 + "sort 2");
         }
     }
 
-    private static void printSortOptions() {
-        System.out.println("Sort options:\n"
+    private static void printSortOptions(Ui ui) {
+        ui.showMessage("Sort options:\n"
             + "Sort all\n"
             + " i.e. sort 1\n"
             + "      sort 2\n"
@@ -266,9 +397,9 @@ public class Parser {
             + "  sort event 1");
     }
 
-    private static void saveData(TaskList taskList, Storage storage, Ui ui) {
+    private static void saveData(TaskList taskList, Ui ui) {
         try {
-            storage.save(taskList.getTasks());
+            taskList.saveTasks();
         } catch (Exception e) {
             ui.showMessage("roe..!! Error saving task.");
         }
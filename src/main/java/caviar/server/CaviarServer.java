@@ -0,0 +1,259 @@
+package caviar.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import caviar.command.ConcurrentTaskList;
+import caviar.exception.CaviarException;
+import caviar.parser.Parser;
+import caviar.storage.Storage;
+import caviar.tenant.TenantTaskLists;
+import caviar.ui.Ui;
+
+/**
+ * Serves one task list to many clients at once over a local TCP socket, without a GUI.
+ *
+ * <p>The protocol is line-oriented: a client sends one command per line, in the same syntax as the CLI,
+ * and gets back the response followed by an empty line. {@code bye} ends the connection but leaves the
+ * server running. Each connection is handled on its own virtual thread where the JVM supports them,
+ * and on a pooled platform thread otherwise. All connections share one {@link ConcurrentTaskList}.</p>
+ *
+ * <p>In multi-user mode, each user has their own task list in a {@link TenantTaskLists}, and a client picks
+ * whose list its commands apply to with {@code user <name>} before sending any other command.</p>
+ */
+public class CaviarServer implements Closeable {
+    /** The port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 4242;
+
+    private static final String BYE_MESSAGE = "Roe. Hope to see you again soon!";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final String USER_COMMAND = "user";
+    private static final int MAX_LOADED_TENANTS = 1000;
+    private static final int MAX_LOADED_TASKS = 1_000_000;
+
+    private final Storage storage; // Null in multi-user mode
+    private final ConcurrentTaskList taskList; // Null in multi-user mode
+    private final TenantTaskLists tenants; // Null in single-user mode
+    private final ExecutorService connectionExecutor = newConnectionExecutor();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructs a server for the tasks in the given storage, loading them immediately.
+     *
+     * @param storage The storage to load tasks from and save them to.
+     * @throws IOException     If the storage file cannot be read.
+     * @throws CaviarException If the storage file contains invalid task data.
+     */
+    public CaviarServer(Storage storage) throws IOException, CaviarException {
+        this.storage = storage;
+        this.taskList = new ConcurrentTaskList(storage);
+        this.tenants = null;
+    }
+
+    /**
+     * Constructs a server in multi-user mode, where each user has a task list of their own.
+     *
+     * @param tenants The users' task lists.
+     */
+    public CaviarServer(TenantTaskLists tenants) {
+        this.storage = null;
+        this.taskList = null;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Starts accepting connections on the loopback interface.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @return The port the server is listening on.
+     * @throws IOException If the port cannot be bound.
+     */
+    public synchronized int start(int port) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        new Thread(this::acceptConnections, "caviar-server-accept").start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, disconnects every client and closes the storage or the users' task lists.
+     *
+     * @throws IOException If the tasks cannot be saved.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Socket client : clients) {
+            client.close();
+        }
+        connectionExecutor.shutdown();
+        try {
+            // Let commands already running finish before their changes are saved
+            connectionExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (tenants != null) {
+            tenants.close();
+        } else {
+            storage.close();
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     *
+     * <p>If the given path is a directory, the server runs in multi-user mode with one task file per user
+     * in that directory.</p>
+     *
+     * @param args {@code [port] [task file or data directory]}
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String filePath = args.length > 1 ? args[1] : "data/tasks.txt";
+        try {
+            CaviarServer server = Files.isDirectory(Path.of(filePath))
+                ? new CaviarServer(new TenantTaskLists(Path.of(filePath), MAX_LOADED_TENANTS, MAX_LOADED_TASKS))
+                : new CaviarServer(createStorage(filePath));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    System.out.println("roe..!! Error saving task.");
+                }
+            }));
+            int boundPort = server.start(port);
+            System.out.println("Roe! Caviar is serving " + filePath + " on localhost:" + boundPort);
+        } catch (IOException | CaviarException e) {
+            System.out.println("roe..!! Could not start the server: " + e.getMessage());
+        }
+    }
+
+    private static Storage createStorage(String filePath) {
+        Storage storage = new Storage(filePath, true);
+        storage.enableParallelLoading(ForkJoinPool.commonPool());
+        return storage;
+    }
+
+    private void acceptConnections() {
+        while (!isClosed) {
+            try {
+                Socket client = serverSocket.accept();
+                clients.add(client);
+                connectionExecutor.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (!isClosed) {
+                    System.out.println("roe..!! Error accepting a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                 new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder response = new StringBuilder();
+            Ui ui = new Ui(response);
+            String tenantId = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String input = line.trim();
+                response.setLength(0);
+                if (Parser.isBye(input)) {
+                    ui.showMessage(BYE_MESSAGE);
+                    respond(out, response);
+                    break;
+                }
+                try {
+                    if (tenants == null) {
+                        Parser.parseAndExecute(input, taskList, ui, storage);
+                    } else if (isUserCommand(input)) {
+                        String requestedId = input.substring(USER_COMMAND.length()).trim();
+                        tenants.withTaskList(requestedId, (tasks, tenantStorage) -> null); // Loads the list
+                        tenantId = requestedId;
+                        ui.showMessage("Roe! Hello, " + tenantId + ".");
+                    } else if (tenantId == null) {
+                        ui.showMessage("roe..!! Say who you are first with: user <name>");
+                    } else {
+                        tenants.withTaskList(tenantId, (tasks, tenantStorage) -> {
+                            Parser.parseAndExecute(input, tasks, ui, tenantStorage);
+                            return null;
+                        });
+                    }
+                } catch (CaviarException e) {
+                    response.setLength(0);
+                    ui.showMessage(e.getMessage());
+                }
+                respond(out, response);
+            }
+        } catch (IOException e) {
+            // The client disconnected; there is nobody left to report to
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private static boolean isUserCommand(String input) {
+        return input.regionMatches(true, 0, USER_COMMAND, 0, USER_COMMAND.length())
+            && (input.length() == USER_COMMAND.length() || input.charAt(USER_COMMAND.length()) == ' ');
+    }
+
+    /**
+     * Writes a response followed by the empty line that ends it.
+     */
+    private static void respond(Writer out, StringBuilder response) throws IOException {
+        int end = response.length();
+        while (end > 0 && (response.charAt(end - 1) == '\n' || response.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        out.append(response, 0, end).append("\n\n");
+        out.flush();
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor on JVMs that have one, and a cached pool of daemon
+     * threads otherwise. It is looked up reflectively so the server still builds for older JVMs.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "caviar-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
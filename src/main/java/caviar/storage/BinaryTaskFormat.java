@@ -0,0 +1,219 @@
+package caviar.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import caviar.exception.CaviarException;
+import caviar.task.Deadline;
+import caviar.task.Event;
+import caviar.task.Task;
+import caviar.task.Todo;
+
+/**
+ * Compact binary encoding of a task file.
+ *
+ * <p>Layout (all integers big-endian):</p>
+ * <pre>
+ * magic "CAVB" | version (byte) | journal base generation (int) | task count (int)
+ * per task: type (byte 'T'/'D'/'E') | flags (byte, bit 0 = done)
+ *           | description length (int) | description (UTF-8)
+ *           | epoch minutes (long), once for a deadline and twice for an event
+ * CRC32 of everything above (long)
+ * </pre>
+ *
+ * <p>Dates are stored as minutes since the epoch, so loading never goes through a {@code DateTimeFormatter}.</p>
+ */
+final class BinaryTaskFormat {
+    static final byte[] MAGIC = {'C', 'A', 'V', 'B'};
+    static final byte VERSION = 1;
+
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final int DONE_FLAG = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int RECORD_HEADER_LENGTH = 2 + Integer.BYTES; // Type, flags and description length
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Returns whether the given file starts with the binary magic header.
+     *
+     * @param path The file to check.
+     * @return {@code true} if the file is in the binary format.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isBinary(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        }
+    }
+
+    /**
+     * Writes the tasks in the binary format.
+     *
+     * @param tasks          The tasks to write.
+     * @param baseGeneration The first journal generation not covered by these tasks, or -1 without a journal.
+     * @param out            The stream to write to. It is flushed but not closed.
+     * @throws IOException If the stream cannot be written.
+     */
+    static void write(List<Task> tasks, int baseGeneration, OutputStream out) throws IOException {
+        CRC32 checksum = new CRC32();
+        DataOutputStream data = new DataOutputStream(
+            new CheckedOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), checksum));
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(baseGeneration);
+        data.writeInt(tasks.size());
+        for (Task task : tasks) {
+            writeTask(data, task);
+        }
+        data.writeLong(checksum.getValue());
+        data.flush();
+    }
+
+    /**
+     * Reads a binary task file into {@code tasks}.
+     *
+     * @param path  The file to read.
+     * @param tasks The list to add the tasks to.
+     * @return The first journal generation not covered by the file, or {@link Storage#NO_JOURNAL_HEADER}.
+     * @throws IOException     If the file cannot be read.
+     * @throws CaviarException If the file is not a valid binary task file or fails its checksum.
+     */
+    static int read(Path path, List<Task> tasks) throws IOException, CaviarException {
+        CRC32 checksum = new CRC32();
+        long recordsEnd = Files.size(path) - Long.BYTES; // The checksum follows the records
+        CountingInputStream counted = new CountingInputStream(new CheckedInputStream(
+            new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE), checksum));
+        try (DataInputStream data = new DataInputStream(counted)) {
+            if (!Arrays.equals(data.readNBytes(MAGIC.length), MAGIC) || data.readByte() != VERSION) {
+                throw new CaviarException("Unsupported binary task file format, roe..!!");
+            }
+            int baseGeneration = data.readInt();
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                Storage.addLoaded(tasks, readTask(data, recordsEnd - counted.getCount()));
+            }
+            long expected = checksum.getValue();
+            if (data.readLong() != expected || data.read() != -1) {
+                throw new CaviarException("Task file is corrupted (checksum mismatch), roe..!!");
+            }
+            return baseGeneration;
+        } catch (EOFException e) {
+            throw new CaviarException("Task file is corrupted (truncated), roe..!!");
+        }
+    }
+
+    private static void writeTask(DataOutputStream data, Task task) throws IOException {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        byte type = task instanceof Deadline ? DEADLINE : task instanceof Event ? EVENT : TODO;
+        data.writeByte(type);
+        data.writeByte(task.isDone() ? DONE_FLAG : 0);
+        data.writeInt(description.length);
+        data.write(description);
+        if (type == DEADLINE) {
+            data.writeLong(toEpochMinute(((Deadline) task).getBy()));
+        } else if (type == EVENT) {
+            data.writeLong(toEpochMinute(((Event) task).getFrom()));
+            data.writeLong(toEpochMinute(((Event) task).getTo()));
+        }
+    }
+
+    /**
+     * Reads one task, whose record must fit in the {@code bytesLeft} bytes before the checksum. The description
+     * length is checked against that before anything is allocated for it, as it has not been checksummed yet.
+     */
+    private static Task readTask(DataInputStream data, long bytesLeft) throws IOException, CaviarException {
+        byte type = data.readByte();
+        int flags = data.readByte();
+        int length = data.readInt();
+        if (length < 0 || length > bytesLeft - RECORD_HEADER_LENGTH) {
+            throw new CaviarException("Task file is corrupted (bad description length), roe..!!");
+        }
+        byte[] descriptionBytes = new byte[length];
+        data.readFully(descriptionBytes);
+        String description = new String(descriptionBytes, StandardCharsets.UTF_8);
+
+        Task task;
+        if (type == TODO) {
+            task = new Todo(description);
+        } else if (type == DEADLINE) {
+            task = new Deadline(description, fromEpochMinute(data.readLong()));
+        } else if (type == EVENT) {
+            LocalDateTime from = fromEpochMinute(data.readLong());
+            task = new Event(description, from, fromEpochMinute(data.readLong()));
+        } else {
+            throw new CaviarException("Task file is corrupted (unknown task type), roe..!!");
+        }
+        if ((flags & DONE_FLAG) != 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Counts the bytes read through it, so lengths read from the file can be checked against the bytes left.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package caviar.storage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import caviar.exception.CaviarException;
+import caviar.task.Task;
+
+/**
+ * Append-only log of task mutations that sits next to the snapshot file.
+ *
+ * <p>The journal is split into numbered segments ({@code tasks.txt.journal.<generation>}).
+ * A snapshot written during compaction records the first generation it does not cover,
+ * so segments that were already folded into the snapshot are never replayed twice.</p>
+ */
+class Journal {
+    private static final String ADD = "A";
+    private static final String MARK = "M";
+    private static final String UNMARK = "U";
+    private static final String DELETE = "X";
+    private static final String SEPARATOR = " | ";
+    private static final String SEGMENT_INFIX = ".journal.";
+
+    private final String snapshotPath;
+    private final StringBuilder pending = new StringBuilder();
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private int generation;
+    private int recordCount;
+
+    /**
+     * Constructs a {@code Journal} for the given snapshot file.
+     *
+     * @param snapshotPath The path of the snapshot file the journal belongs to.
+     */
+    Journal(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Replays every segment from {@code baseGeneration} onwards on top of the loaded snapshot,
+     * deletes segments older than {@code baseGeneration}, and opens the newest segment for appending.
+     * A snapshot written without a journal already holds every change, so any segments left over from an
+     * earlier journaled run are deleted rather than replayed on top of it. The caller must then write a snapshot
+     * with a journal header before appending, or the new segment would be dropped the same way on the next load.
+     *
+     * @param tasks          The tasks loaded from the snapshot.
+     * @param baseGeneration The first generation not covered by the snapshot, or
+     *                       {@link Storage#NO_JOURNAL_HEADER} if the snapshot was written without a journal.
+     * @throws IOException     If a segment cannot be read or opened.
+     * @throws CaviarException If a segment contains an invalid record.
+     */
+    void replayAndOpen(List<Task> tasks, int baseGeneration) throws IOException, CaviarException {
+        if (baseGeneration == Storage.NO_JOURNAL_HEADER) {
+            int newest = -1;
+            for (int segment : listSegments()) {
+                Files.deleteIfExists(segmentPath(segment));
+                newest = Math.max(newest, segment);
+            }
+            open(newest + 1);
+            return;
+        }
+        int newest = baseGeneration;
+        for (int segment : listSegments()) {
+            if (segment < baseGeneration) {
+                Files.deleteIfExists(segmentPath(segment));
+                continue;
+            }
+            replaySegment(tasks, segment);
+            newest = Math.max(newest, segment);
+        }
+        open(newest);
+    }
+
+    void appendAdd(Task task) {
+        append(ADD + SEPARATOR + task.toStorageString());
+    }
+
+    void appendMark(int index) {
+        append(MARK + SEPARATOR + index);
+    }
+
+    void appendUnmark(int index) {
+        append(UNMARK + SEPARATOR + index);
+    }
+
+    void appendDelete(int index) {
+        append(DELETE + SEPARATOR + index);
+    }
+
+    /**
+     * Writes every record appended since the last flush to the current segment in a single write.
+     *
+     * @throws IOException If the segment cannot be written.
+     */
+    void flush() throws IOException {
+        if (pending.length() == 0) {
+            return;
+        }
+        writer.append(pending);
+        writer.flush();
+        pending.setLength(0);
+    }
+
+    /**
+     * Flushes the current segment and forces it to disk.
+     *
+     * @throws IOException If the segment cannot be written.
+     */
+    void sync() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        flush();
+        channel.force(false);
+    }
+
+    /**
+     * Returns the generation of the current segment, i.e. the first generation a snapshot taken now does not cover
+     * if no record has been appended to it yet.
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of records appended to the current segment, including unflushed ones.
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Flushes and closes the current segment and starts a new one.
+     *
+     * @return The generation of the new segment, i.e. the first generation a snapshot taken now does not cover.
+     * @throws IOException If the new segment cannot be opened.
+     */
+    int seal() throws IOException {
+        close();
+        open(generation + 1);
+        return generation;
+    }
+
+    /**
+     * Deletes every segment older than the given generation.
+     *
+     * @param baseGeneration The first generation that must be kept.
+     * @throws IOException If a segment cannot be deleted.
+     */
+    void deleteBefore(int baseGeneration) throws IOException {
+        for (int segment : listSegments()) {
+            if (segment < baseGeneration) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+    }
+
+    /**
+     * Flushes and closes the current segment, if any.
+     *
+     * @throws IOException If the segment cannot be flushed.
+     */
+    void close() throws IOException {
+        if (writer != null) {
+            flush();
+            writer.close();
+            writer = null;
+            channel = null;
+        }
+    }
+
+    private void open(int newGeneration) throws IOException {
+        generation = newGeneration;
+        recordCount = 0;
+        channel = FileChannel.open(segmentPath(generation),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    private void append(String record) {
+        pending.append(record).append('\n');
+        recordCount++;
+    }
+
+    private void replaySegment(List<Task> tasks, int segment) throws IOException, CaviarException {
+        String content = Files.readString(segmentPath(segment), StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return;
+        }
+        // Anything after the last newline is a record torn by a crash, so it is dropped.
+        for (String record : content.substring(0, end).split("\n")) {
+            applyRecord(tasks, record);
+        }
+    }
+
+    private void applyRecord(List<Task> tasks, String record) throws CaviarException {
+        if (record.length() < ADD.length() + SEPARATOR.length()) {
+            throw new CaviarException("Invalid journal record in storage, roe..!!");
+        }
+        String type = record.substring(0, 1);
+        String payload = record.substring(1 + SEPARATOR.length());
+        if (ADD.equals(type)) {
+            Storage.addLoaded(tasks, Task.fromStorageString(payload));
+            return;
+        }
+
+        int index = parseIndex(payload, tasks.size());
+        if (MARK.equals(type)) {
+            tasks.get(index).markAsDone();
+        } else if (UNMARK.equals(type)) {
+            tasks.get(index).markAsNotDone();
+        } else if (DELETE.equals(type)) {
+            tasks.remove(index);
+        } else {
+            throw new CaviarException("Invalid journal record in storage, roe..!!");
+        }
+    }
+
+    private int parseIndex(String payload, int size) throws CaviarException {
+        try {
+            int index = Integer.parseInt(payload);
+            if (index >= 0 && index < size) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // Falls through to the exception below
+        }
+        throw new CaviarException("Invalid journal record in storage, roe..!!");
+    }
+
+    private List<Integer> listSegments() {
+        File snapshot = new File(snapshotPath).getAbsoluteFile();
+        String prefix = snapshot.getName() + SEGMENT_INFIX;
+        File[] files = snapshot.getParentFile().listFiles((dir, name) -> name.startsWith(prefix));
+
+        List<Integer> segments = new ArrayList<>();
+        if (files == null) {
+            return segments;
+        }
+        for (File file : files) {
+            try {
+                segments.add(Integer.parseInt(file.getName().substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                // Not one of our segments
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path segmentPath(int segment) {
+        return Paths.get(snapshotPath + SEGMENT_INFIX + segment);
+    }
+}
@@ -0,0 +1,246 @@
+package caviar.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+import caviar.exception.CaviarException;
+import caviar.task.Task;
+
+/**
+ * A list of tasks backed by a memory-mapped task file.
+ *
+ * <p>Loading only records where each line starts and ends; no {@code String} or {@code Task} is built.
+ * A task is parsed from the mapped bytes the first time it is accessed and cached from then on,
+ * so startup time and heap use depend on how many tasks are touched rather than on the file size.
+ * Because parsing is deferred, a malformed line is only reported when it is first accessed.</p>
+ *
+ * <p>Since {@link #get(int)} caches the task it parses, reading the list changes it, and the task must be cached
+ * so that changes to it are kept. The list is therefore for one thread only, even if the others only read; a
+ * {@code ConcurrentTaskList} does not accept memory-mapped storage.</p>
+ */
+class MappedTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final int NOT_MAPPED = -1;
+    private static final byte[] JOURNAL_HEADER = Storage.JOURNAL_HEADER.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CHECKSUM_TRAILER = Storage.CHECKSUM_TRAILER.getBytes(StandardCharsets.UTF_8);
+
+    private final ByteBuffer buffer;
+    private int[] starts;
+    private int[] lengths;
+    private Task[] tasks;
+    private int size;
+    private int baseGeneration = Storage.NO_JOURNAL_HEADER;
+    private boolean hasTrailer;
+
+    private MappedTaskList(ByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.tasks = new Task[capacity];
+    }
+
+    /**
+     * Maps the given task file and indexes its lines.
+     *
+     * @param path The task file to map.
+     * @return The list of tasks in the file.
+     * @throws IOException     If the file cannot be mapped.
+     * @throws CaviarException If the file fails its checksum.
+     */
+    static MappedTaskList map(Path path) throws IOException, CaviarException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Task file is too large to map: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            MappedTaskList list = new MappedTaskList(buffer, (int) Math.min(fileSize / 16 + 16, 1 << 20));
+            list.indexLines();
+            return list;
+        }
+    }
+
+    /**
+     * Returns the first journal generation not covered by the mapped snapshot, or
+     * {@link Storage#NO_JOURNAL_HEADER} if it has no journal header.
+     */
+    int getBaseGeneration() {
+        return baseGeneration;
+    }
+
+    /**
+     * Returns a copy of this list that shares the mapped file, without parsing any task.
+     */
+    MappedTaskList copy() {
+        MappedTaskList copy = new MappedTaskList(buffer, 0);
+        copy.starts = Arrays.copyOf(starts, size);
+        copy.lengths = Arrays.copyOf(lengths, size);
+        copy.tasks = Arrays.copyOf(tasks, size);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the storage string of the task at the given index, reusing the mapped line
+     * as-is if the task has not been parsed.
+     *
+     * @param index The index of the task.
+     * @return The storage string of the task.
+     */
+    String getStorageString(int index) {
+        checkIndex(index);
+        Task task = tasks[index];
+        return task != null ? task.toStorageString() : decode(starts[index], lengths[index]);
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        Task task = tasks[index];
+        if (task == null) {
+            task = parse(index);
+            tasks[index] = task;
+        }
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        tasks[index] = task;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(lengths, index, lengths, index + 1, size - index);
+        System.arraycopy(tasks, index, tasks, index + 1, size - index);
+        starts[index] = NOT_MAPPED;
+        lengths[index] = 0;
+        tasks[index] = task;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        int moved = size - index - 1;
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(lengths, index + 1, lengths, index, moved);
+        System.arraycopy(tasks, index + 1, tasks, index, moved);
+        size--;
+        tasks[size] = null;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void indexLines() throws CaviarException {
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int length = lineEnd - lineStart;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+
+            if (length > 0 && buffer.get(lineStart) == '#') {
+                if (startsWith(lineStart, length, CHECKSUM_TRAILER)) {
+                    verifyChecksum(lineStart, length, lineEnd + 1 >= limit);
+                    hasTrailer = true;
+                } else if (startsWith(lineStart, length, JOURNAL_HEADER)) {
+                    baseGeneration = Integer.parseInt(decode(lineStart + JOURNAL_HEADER.length,
+                        length - JOURNAL_HEADER.length).trim());
+                }
+            } else if (length > 0 || lineEnd < limit) {
+                appendLine(lineStart, length);
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (!hasTrailer && baseGeneration != Storage.NO_JOURNAL_HEADER) {
+            throw new CaviarException("Task file is corrupted (missing checksum), roe..!!");
+        }
+    }
+
+    private void verifyChecksum(int trailerStart, int trailerLength, boolean isLastLine) throws CaviarException {
+        if (!isLastLine) {
+            throw new CaviarException("Task file is corrupted (data after checksum), roe..!!");
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(0).limit(trailerStart));
+        String expected = decode(trailerStart + CHECKSUM_TRAILER.length,
+            trailerLength - CHECKSUM_TRAILER.length).trim();
+        if (!expected.equals(Long.toHexString(checksum.getValue()))) {
+            throw new CaviarException("Task file is corrupted (checksum mismatch), roe..!!");
+        }
+    }
+
+    private void appendLine(int start, int length) {
+        ensureCapacity(size + 1);
+        starts[size] = start;
+        lengths[size] = length;
+        size++;
+    }
+
+    private boolean startsWith(int start, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Task parse(int index) {
+        try {
+            return Task.fromStorageString(decode(starts[index], lengths[index]));
+        } catch (CaviarException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private String decode(int start, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= starts.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, starts.length + (starts.length >> 1) + 1);
+        starts = Arrays.copyOf(starts, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        tasks = Arrays.copyOf(tasks, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
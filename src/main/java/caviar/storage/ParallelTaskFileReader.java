@@ -0,0 +1,209 @@
+package caviar.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32;
+import caviar.exception.CaviarException;
+import caviar.task.Task;
+
+/**
+ * Reads a text task file by parsing chunks of it in parallel on a {@link ForkJoinPool}.
+ *
+ * <p>The file is mapped and split into byte ranges that each end just after a {@code '\n'}, so no line is split
+ * between chunks. Each chunk is parsed into its own list of tasks, and the lists are joined in file order.
+ * The result, including which exception is thrown for a malformed file, is the same as reading the file line by
+ * line: the failure reported is the one the sequential reader would have hit first.</p>
+ */
+class ParallelTaskFileReader {
+    private static final int MIN_CHUNK_SIZE = 1 << 18;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelTaskFileReader() {
+        // Not meant to be instantiated
+    }
+
+    /**
+     * Returns whether a file of the given size is worth reading in parallel.
+     *
+     * @param fileSize The size of the task file in bytes.
+     * @param pool     The pool the chunks would be parsed on.
+     * @return {@code true} if the file splits into more than one chunk and can be mapped.
+     */
+    static boolean isWorthwhile(long fileSize, ForkJoinPool pool) {
+        return pool.getParallelism() > 1 && fileSize >= 2L * MIN_CHUNK_SIZE && fileSize <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Reads the tasks in the given file into {@code tasks}, verifying its checksum trailer if it has one.
+     *
+     * @param path  The task file to read.
+     * @param tasks The list to append the tasks to, in file order.
+     * @param pool  The pool to parse the chunks on.
+     * @return The first journal generation not covered by the file.
+     * @throws IOException     If the file cannot be read.
+     * @throws CaviarException If the file contains invalid task data or fails its checksum.
+     */
+    static int read(Path path, List<Task> tasks, ForkJoinPool pool) throws IOException, CaviarException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Task file is too large to map: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+
+        List<ChunkParser> parsers = new ArrayList<>();
+        for (int start = 0; start < buffer.limit();) {
+            int end = chunkEnd(buffer, start, chunkSize(buffer.limit(), pool));
+            parsers.add(new ChunkParser(buffer, start, end));
+            start = end;
+        }
+        for (ChunkParser parser : parsers) {
+            pool.execute(parser);
+        }
+
+        int baseGeneration = Storage.NO_JOURNAL_HEADER;
+        int trailerStart = -1;
+        String trailer = null;
+        for (ChunkParser parser : parsers) {
+            Chunk chunk = parser.join();
+            if (trailer != null) { // Every chunk holds at least one line
+                throw new CaviarException("Task file is corrupted (data after checksum), roe..!!");
+            }
+            if (chunk.failure instanceof CaviarException) {
+                throw (CaviarException) chunk.failure;
+            } else if (chunk.failure != null) {
+                throw (RuntimeException) chunk.failure;
+            }
+            if (chunk.baseGeneration >= 0) {
+                baseGeneration = chunk.baseGeneration;
+            }
+            if (chunk.trailer != null) {
+                trailer = chunk.trailer;
+                trailerStart = chunk.trailerStart;
+            }
+            if (tasks instanceof ArrayList) {
+                ((ArrayList<Task>) tasks).ensureCapacity(tasks.size() + chunk.tasks.size());
+                tasks.addAll(chunk.tasks);
+            } else {
+                for (Task task : chunk.tasks) {
+                    Storage.addLoaded(tasks, task);
+                }
+            }
+        }
+
+        if (trailer == null && baseGeneration != Storage.NO_JOURNAL_HEADER) {
+            throw new CaviarException("Task file is corrupted (missing checksum), roe..!!");
+        }
+        if (trailer != null) {
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate().position(0).limit(trailerStart));
+            if (!trailer.equals(Long.toHexString(checksum.getValue()))) {
+                throw new CaviarException("Task file is corrupted (checksum mismatch), roe..!!");
+            }
+        }
+        return baseGeneration;
+    }
+
+    private static int chunkSize(int fileSize, ForkJoinPool pool) {
+        long chunkCount = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+        return (int) Math.max(MIN_CHUNK_SIZE, fileSize / chunkCount + 1);
+    }
+
+    /**
+     * Returns the end of the chunk starting at {@code start}: just after the first {@code '\n'} at or past
+     * {@code start + size}, or the end of the file.
+     */
+    private static int chunkEnd(ByteBuffer buffer, int start, int size) {
+        int limit = buffer.limit();
+        if (size >= limit - start) {
+            return limit;
+        }
+        for (int i = start + size - 1; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * What parsing one chunk found, in the form needed to join it with the chunks before it.
+     */
+    private static final class Chunk {
+        private final List<Task> tasks = new ArrayList<>();
+        private int baseGeneration = -1; // The last journal header in the chunk, if any
+        private String trailer;
+        private int trailerStart;
+        private Exception failure; // The first line that the sequential reader would have thrown on
+    }
+
+    /**
+     * Parses the lines of one chunk, stopping at the first line that fails.
+     */
+    private static final class ChunkParser extends RecursiveTask<Chunk> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private ChunkParser(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk chunk = new Chunk();
+            int lineStart = start;
+            try {
+                while (lineStart < end) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                        lineEnd++;
+                    }
+                    parseLine(chunk, lineStart, lineEnd);
+                    lineStart = lineEnd + 1;
+                }
+            } catch (CaviarException | RuntimeException e) {
+                chunk.failure = e;
+            }
+            return chunk;
+        }
+
+        private void parseLine(Chunk chunk, int lineStart, int lineEnd) throws CaviarException {
+            if (chunk.trailer != null) {
+                throw new CaviarException("Task file is corrupted (data after checksum), roe..!!");
+            }
+            String line = decode(lineStart, lineEnd);
+            if (line.startsWith(Storage.CHECKSUM_TRAILER)) {
+                chunk.trailer = line.substring(Storage.CHECKSUM_TRAILER.length()).trim();
+                chunk.trailerStart = lineStart;
+            } else if (line.startsWith(Storage.JOURNAL_HEADER)) {
+                chunk.baseGeneration = Integer.parseInt(line.substring(Storage.JOURNAL_HEADER.length()).trim());
+            } else if (!line.startsWith(Storage.COMMENT_PREFIX)) {
+                chunk.tasks.add(Task.fromStorageString(line));
+            }
+        }
+
+        private String decode(int lineStart, int lineEnd) {
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            byte[] bytes = new byte[lineEnd - lineStart];
+            buffer.get(lineStart, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
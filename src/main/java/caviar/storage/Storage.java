@@ -1,21 +1,86 @@
 package caviar.storage;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 import caviar.exception.CaviarException;
 import caviar.task.Task;
+import caviar.task.TaskStore;
 
 /**
  * Manages storage of tasks by saving and loading them to/from a file.
  *
  * <p>The {@code Storage} class provides methods to persist a list of tasks to a file
  * and retrieve them when needed.</p>
+ *
+ * <p>Mutations are recorded as they happen and persisted at most once per {@link #flush(List)}.
+ * In journaling mode, each mutation is appended as a small record to a journal next to the
+ * task file instead of rewriting the whole file. Once the journal grows past
+ * {@value #COMPACTION_THRESHOLD} records, it is compacted into a fresh snapshot in the background.</p>
+ *
+ * <p>Every snapshot is written to a temp file, forced to disk and atomically renamed over the task file,
+ * and ends with a CRC32 trailer that {@link #load()} verifies.</p>
+ *
+ * <p>Tasks are stored either as text, one {@link Task#toStorageString()} per line, or in the compact
+ * {@link BinaryTaskFormat}. {@link #load()} detects the format from the file's magic header and later
+ * saves keep that format.</p>
+ *
+ * <p>With parallel loading enabled, a large text task file is parsed in chunks on several threads.</p>
+ *
+ * <p>With compact tasks enabled, {@link #load()} returns a {@link TaskStore}, which holds the tasks in columns
+ * rather than as objects.</p>
+ *
+ * <p>With write-behind enabled, {@link #flush(List)} returns immediately and a background thread
+ * batches every flush within a short window into one write. {@link #close()} drains the remaining
+ * changes, and also runs on JVM shutdown.</p>
  */
 public class Storage {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+    public static final int DEFAULT_MAX_PENDING_OPS = 256;
+
+    private static final int COMPACTION_THRESHOLD = 1000;
+    static final String COMMENT_PREFIX = "#";
+    static final String JOURNAL_HEADER = "# journal ";
+    static final String CHECKSUM_TRAILER = "# crc32 ";
+    /** The base generation of a snapshot written without a journal, which already holds every change. */
+    static final int NO_JOURNAL_HEADER = -1;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
     private String filePath;
+    private final Journal journal;
+    private final Object snapshotLock = new Object();
+    private final Object pendingLock = new Object();
+    private ExecutorService compactor;
+    private WriteBehindWriter writeBehindWriter;
+    private Thread shutdownHook;
+    private List<Task> pendingTasks;
+    private boolean isClosed;
+    private boolean isMemoryMapped;
+    private ForkJoinPool parallelLoadPool;
+    private boolean isBinary;
+    private boolean isCompact;
+    private int snapshotGeneration = -1;
+    private boolean isDirty;
 
     /**
      * Constructs a {@code Storage} instance with the specified file path.
@@ -23,26 +88,451 @@ public class Storage {
      * @param filePath The path of the file where tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a {@code Storage} instance with the specified file path, optionally in journaling mode.
+     *
+     * @param filePath    The path of the file where tasks are stored.
+     * @param isJournaled Whether mutations are appended to a journal instead of rewriting the file.
+     */
+    public Storage(String filePath, boolean isJournaled) {
         this.filePath = filePath;
+        this.journal = isJournaled ? new Journal(filePath) : null;
+    }
+
+    /**
+     * Switches this storage to write-behind mode, where flushes are batched on a background thread.
+     *
+     * <p>A change is written at most {@code flushIntervalMillis} after it is flushed, or sooner once
+     * {@code maxPendingOps} flushes are waiting. Must be called before the storage is used.</p>
+     *
+     * <p>Without a journal, the background thread copies the list once per write, while holding the list's
+     * monitor. Code that changes the list on another thread must hold the monitor too, as {@code TaskList}
+     * does.</p>
+     *
+     * @param flushIntervalMillis The longest time a flushed change may wait before it is written.
+     * @param maxPendingOps       The number of waiting flushes that triggers an early write.
+     */
+    public void enableWriteBehind(long flushIntervalMillis, int maxPendingOps) {
+        assert writeBehindWriter == null : "Write-behind is already enabled";
+
+        writeBehindWriter = new WriteBehindWriter(this::writePending, flushIntervalMillis, maxPendingOps);
+        shutdownHook = new Thread(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                System.out.println("roe..!! Error saving task.");
+            }
+        }, "caviar-storage-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Switches this storage to memory-mapped loading, where {@link #load()} maps the task file and
+     * only parses a task the first time it is accessed. Must be called before the storage is used.
+     *
+     * <p>Suited to very large task files on small heaps. A malformed line is only reported
+     * when its task is first accessed. Files must be under 2 GB, and on Windows a mapped
+     * file cannot be replaced, so this mode is best paired with journaling there.</p>
+     *
+     * <p>Reading a task caches it in the loaded list, so the list must only be used by one thread.</p>
+     */
+    public void enableMemoryMapping() {
+        isMemoryMapped = true;
+    }
+
+    /**
+     * Returns whether this storage loads tasks by memory-mapping the task file.
+     *
+     * @return {@code true} if memory-mapped loading is enabled.
+     */
+    public boolean isMemoryMapped() {
+        return isMemoryMapped;
+    }
+
+    /**
+     * Switches this storage to parallel loading, where {@link #load()} splits a large text task file into
+     * chunks and parses them on the given pool. Must be called before the storage is used.
+     *
+     * <p>The loaded tasks, and the exception thrown for a malformed file, are the same as with sequential
+     * loading. Small files, and pools with a parallelism of one, are still read sequentially.</p>
+     *
+     * @param pool The pool to parse on, e.g. {@link ForkJoinPool#commonPool()}.
+     */
+    public void enableParallelLoading(ForkJoinPool pool) {
+        parallelLoadPool = pool;
+    }
+
+    /**
+     * Switches this storage to compact tasks, where {@link #load()} returns a {@link TaskStore} that holds the tasks
+     * in columns rather than as one set of objects each. Must be called before the storage is used.
+     *
+     * <p>Suited to very large task lists on small heaps. It does not apply with memory-mapped loading, which
+     * keeps the tasks in the mapped file instead.</p>
+     */
+    public void enableCompactTasks() {
+        isCompact = true;
+    }
+
+    /**
+     * Switches this storage to the compact binary format. The next save rewrites the task file in
+     * that format; files already in the binary format are detected automatically by {@link #load()}.
+     */
+    public void enableBinaryFormat() {
+        isBinary = true;
+    }
+
+    /**
+     * Returns whether this storage reads and writes the binary format.
+     *
+     * @return {@code true} if the binary format is in use.
+     */
+    public boolean isBinary() {
+        return isBinary;
+    }
+
+    /**
+     * Returns whether this storage appends mutations to a journal.
+     *
+     * @return {@code true} if journaling mode is enabled.
+     */
+    public boolean isJournaled() {
+        return journal != null;
     }
 
     /**
      * Saves the list of tasks to the storage file.
      *
-     * <p>If the storage file's directory does not exist, it is created automatically.</p>
+     * <p>If the storage file's directory does not exist, it is created automatically.
+     * In journaling mode, this compacts the journal into the new snapshot.</p>
      *
      * @param tasks The list of tasks to save.
      * @throws IOException If an error occurs while writing to the file.
      */
-    public void save(ArrayList<Task> tasks) throws IOException {
+    public void save(List<Task> tasks) throws IOException {
+        isDirty = false;
+        if (journal == null) {
+            writeSnapshot(tasks, -1);
+            return;
+        }
+        int baseGeneration;
+        synchronized (journal) {
+            baseGeneration = journal.seal();
+        }
+        writeJournalSnapshot(tasks, baseGeneration);
+    }
+
+    /**
+     * Records that a task was appended to the end of the list.
+     *
+     * <p>Nothing is written until {@link #flush(List)} is called.</p>
+     *
+     * @param task The task that was added.
+     */
+    public void recordAdd(Task task) {
+        if (journal != null) {
+            synchronized (journal) {
+                journal.appendAdd(task);
+            }
+        }
+        isDirty = true;
+    }
+
+    /**
+     * Records that the task at the given index was marked as done.
+     *
+     * @param index The 0-based index of the marked task.
+     */
+    public void recordMark(int index) {
+        if (journal != null) {
+            synchronized (journal) {
+                journal.appendMark(index);
+            }
+        }
+        isDirty = true;
+    }
+
+    /**
+     * Records that the task at the given index was marked as not done.
+     *
+     * @param index The 0-based index of the unmarked task.
+     */
+    public void recordUnmark(int index) {
+        if (journal != null) {
+            synchronized (journal) {
+                journal.appendUnmark(index);
+            }
+        }
+        isDirty = true;
+    }
+
+    /**
+     * Records that the task at the given index was removed.
+     *
+     * @param index The 0-based index the task was removed from.
+     */
+    public void recordDelete(int index) {
+        if (journal != null) {
+            synchronized (journal) {
+                journal.appendDelete(index);
+            }
+        }
+        isDirty = true;
+    }
+
+    /**
+     * Returns whether any mutation has been recorded since the last flush.
+     *
+     * @return {@code true} if there are unsaved changes.
+     */
+    public boolean isDirty() {
+        return isDirty;
+    }
+
+    /**
+     * Persists the mutations recorded since the last flush, if any.
+     *
+     * <p>Without journaling, the whole list is rewritten once. In journaling mode, the recorded
+     * mutations are appended to the journal in a single write.</p>
+     *
+     * @param tasks The current list of tasks.
+     * @throws IOException If an error occurs while writing to storage.
+     */
+    public void flush(List<Task> tasks) throws IOException {
+        if (!isDirty) {
+            return;
+        }
+        isDirty = false;
+        if (journal != null && journal.getRecordCount() >= COMPACTION_THRESHOLD) {
+            compact(tasks);
+            return;
+        }
+
+        if (writeBehindWriter != null) {
+            if (journal == null) {
+                synchronized (pendingLock) {
+                    pendingTasks = tasks; // Copied once per write by the background thread
+                }
+            }
+            writeBehindWriter.submit();
+            return;
+        }
+
+        if (journal == null) {
+            writeSnapshot(tasks, -1);
+            return;
+        }
+        synchronized (journal) {
+            journal.flush();
+        }
+    }
+
+    /**
+     * Writes out the latest state handed over by {@link #flush(List)}. Runs on the write-behind thread.
+     */
+    private void writePending() throws IOException {
+        if (journal != null) {
+            synchronized (journal) {
+                journal.flush();
+            }
+            return;
+        }
+
+        List<Task> tasks;
+        synchronized (pendingLock) {
+            tasks = pendingTasks;
+            pendingTasks = null;
+        }
+        if (tasks == null) {
+            return;
+        }
+        List<Task> snapshot;
+        synchronized (tasks) {
+            snapshot = copyOf(tasks);
+        }
+        writeSnapshot(snapshot, -1);
+    }
+
+    /**
+     * Writes out any pending changes, forces them to disk, waits for any background compaction
+     * and closes the journal. Calling this more than once has no further effect.
+     *
+     * @throws IOException If the pending changes cannot be written.
+     */
+    public void close() throws IOException {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+        }
+        if (writeBehindWriter != null) {
+            writeBehindWriter.close();
+            removeShutdownHook();
+        }
+        if (journal == null) {
+            return;
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (journal) {
+            journal.sync();
+            journal.close();
+        }
+    }
+
+    private void removeShutdownHook() {
+        if (Thread.currentThread() == shutdownHook) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and the hook has been started
+        }
+    }
+
+    /**
+     * Seals the current journal segment and writes a snapshot of the given tasks in the background.
+     * Records appended after the seal go to the next segment and are replayed on top of the snapshot.
+     */
+    private void compact(List<Task> tasks) throws IOException {
+        List<Task> snapshot = copyOf(tasks);
+        int baseGeneration;
+        synchronized (journal) {
+            baseGeneration = journal.seal();
+        }
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "caviar-journal-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        compactor.execute(() -> {
+            try {
+                writeJournalSnapshot(snapshot, baseGeneration);
+            } catch (IOException e) {
+                System.out.println("roe..!! Error compacting task journal.");
+            }
+        });
+    }
+
+    /**
+     * Writes a snapshot covering every journal segment before {@code baseGeneration} and drops those segments.
+     * A snapshot older than the one already on disk is skipped so it can never overwrite newer state.
+     */
+    private void writeJournalSnapshot(List<Task> tasks, int baseGeneration) throws IOException {
+        synchronized (snapshotLock) {
+            if (baseGeneration <= snapshotGeneration) {
+                return;
+            }
+            writeSnapshot(tasks, baseGeneration);
+            snapshotGeneration = baseGeneration;
+        }
+        synchronized (journal) {
+            journal.deleteBefore(baseGeneration);
+        }
+    }
+
+    /**
+     * Writes the tasks to a sibling temp file, forces it to disk and atomically moves it over the task file,
+     * so a crash at any point leaves either the old or the new file intact, never a truncated one.
+     */
+    private void writeSnapshot(List<Task> tasks, int baseGeneration) throws IOException {
         File file = new File(filePath);
         createDirectoryIfMissing(file);
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + TEMP_SUFFIX);
+
+        synchronized (snapshotLock) {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                if (isBinary) {
+                    BinaryTaskFormat.write(tasks, baseGeneration, out);
+                } else {
+                    writeText(tasks, baseGeneration, out);
+                }
+                channel.force(true);
+            }
+            moveIntoPlace(temp, target);
+            syncDirectory(target.toAbsolutePath().getParent());
+        }
+    }
+
+    private void writeText(List<Task> tasks, int baseGeneration, OutputStream out) throws IOException {
+        CRC32 checksum = new CRC32();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+            new CheckedOutputStream(out, checksum), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        if (baseGeneration >= 0) {
+            writer.write(JOURNAL_HEADER + baseGeneration + "\n");
+        }
+        writeTasks(writer, tasks);
+        writer.flush();
+        // The trailer is written after the flush so that it is not part of its own checksum
+        writer.write(CHECKSUM_TRAILER + Long.toHexString(checksum.getValue()) + "\n");
+        writer.flush();
+    }
 
-        FileWriter writer = new FileWriter(file);
+    private void writeTasks(Writer writer, List<Task> tasks) throws IOException {
+        if (tasks instanceof MappedTaskList) {
+            MappedTaskList mappedTasks = (MappedTaskList) tasks;
+            for (int i = 0; i < mappedTasks.size(); i++) {
+                writer.write(mappedTasks.getStorageString(i));
+                writer.write('\n');
+            }
+            return;
+        }
         for (Task task : tasks) {
-            writer.write(task.toStorageString() + "\n");
+            writer.write(task.toStorageString());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Returns a shallow copy of the tasks that a background writer can use while the original keeps changing.
+     * A memory-mapped list is copied without parsing its tasks, and a task store without making views of them.
+     */
+    private static List<Task> copyOf(List<Task> tasks) {
+        if (tasks instanceof MappedTaskList) {
+            return ((MappedTaskList) tasks).copy();
+        }
+        if (tasks instanceof TaskStore) {
+            return ((TaskStore) tasks).copy();
+        }
+        return new ArrayList<>(tasks);
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the directory entry of a file just moved into {@code directory} to disk, so the move survives
+     * a crash. Platforms that cannot open a directory, such as Windows, make the move durable on their own.
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The directory cannot be opened for syncing on this platform
         }
-        writer.close();
     }
 
     private void createDirectoryIfMissing(File file) {
@@ -56,24 +546,104 @@ public class Storage {
     /**
      * Loads tasks from the storage file.
      *
+     * <p>In journaling mode, the journal is replayed on top of the snapshot.</p>
+     *
      * @return The list of loaded tasks.
      * @throws IOException     If an error occurs while reading the file.
      * @throws CaviarException If an error occurs while parsing task data.
      */
-    public ArrayList<Task> load() throws IOException, CaviarException {
-        ArrayList<Task> tasks = new ArrayList<>();
+    public List<Task> load() throws IOException, CaviarException {
+        List<Task> tasks;
         File file = new File(filePath);
+        int baseGeneration = 0;
 
         if (!file.exists()) {
-            return tasks;
+            tasks = newTaskList();
+        } else if (BinaryTaskFormat.isBinary(file.toPath())) {
+            isBinary = true;
+            tasks = newTaskList();
+            baseGeneration = BinaryTaskFormat.read(file.toPath(), tasks);
+        } else if (isMemoryMapped) {
+            MappedTaskList mappedTasks = MappedTaskList.map(file.toPath());
+            baseGeneration = mappedTasks.getBaseGeneration();
+            tasks = mappedTasks;
+        } else if (parallelLoadPool != null && ParallelTaskFileReader.isWorthwhile(file.length(), parallelLoadPool)) {
+            tasks = newTaskList();
+            baseGeneration = ParallelTaskFileReader.read(file.toPath(), tasks, parallelLoadPool);
+        } else {
+            tasks = newTaskList();
+            baseGeneration = readSnapshot(file, tasks);
         }
 
-        Scanner scanner = new Scanner(file);
-        while (scanner.hasNextLine()) {
-            String line = scanner.nextLine();
-            tasks.add(Task.fromStorageString(line));
+        if (journal != null) {
+            createDirectoryIfMissing(file);
+            int generation;
+            synchronized (journal) {
+                journal.replayAndOpen(tasks, baseGeneration);
+                generation = journal.getGeneration();
+            }
+            if (baseGeneration == NO_JOURNAL_HEADER) {
+                // Without a header the new segment would be taken as left over and dropped on the next load
+                writeJournalSnapshot(tasks, generation);
+            }
         }
-        scanner.close();
         return tasks;
     }
+
+    private List<Task> newTaskList() {
+        return isCompact ? new TaskStore() : new ArrayList<>();
+    }
+
+    /**
+     * Adds a task read from storage to the loaded tasks. A {@link TaskStore} copies it into its columns, as
+     * nothing else holds the task.
+     *
+     * @param tasks The loaded tasks.
+     * @param task  The task to add.
+     */
+    static void addLoaded(List<Task> tasks, Task task) {
+        if (tasks instanceof TaskStore) {
+            ((TaskStore) tasks).append(task);
+        } else {
+            tasks.add(task);
+        }
+    }
+
+    /**
+     * Reads the snapshot into {@code tasks}, verifying its checksum trailer.
+     * Files in the legacy format, which has neither a journal header nor a trailer, are accepted as they are.
+     * A file with a journal header but no trailer was cut short and is rejected.
+     *
+     * @return The first journal generation not covered by the snapshot, or {@link #NO_JOURNAL_HEADER}.
+     */
+    private int readSnapshot(File file, List<Task> tasks) throws IOException, CaviarException {
+        int baseGeneration = NO_JOURNAL_HEADER;
+        long checksum = 0;
+        String trailer = null;
+
+        try (TaskFileReader reader = new TaskFileReader(Files.newInputStream(file.toPath()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (trailer != null) {
+                    throw new CaviarException("Task file is corrupted (data after checksum), roe..!!");
+                }
+                if (line.startsWith(CHECKSUM_TRAILER)) {
+                    trailer = line.substring(CHECKSUM_TRAILER.length()).trim();
+                    checksum = reader.getChecksumBeforeLastLine();
+                } else if (line.startsWith(JOURNAL_HEADER)) {
+                    baseGeneration = Integer.parseInt(line.substring(JOURNAL_HEADER.length()).trim());
+                } else if (!line.startsWith(COMMENT_PREFIX)) {
+                    addLoaded(tasks, Task.fromStorageString(line));
+                }
+            }
+        }
+
+        if (trailer == null && baseGeneration != NO_JOURNAL_HEADER) {
+            throw new CaviarException("Task file is corrupted (missing checksum), roe..!!");
+        }
+        if (trailer != null && !trailer.equals(Long.toHexString(checksum))) {
+            throw new CaviarException("Task file is corrupted (checksum mismatch), roe..!!");
+        }
+        return baseGeneration;
+    }
 }
@@ -0,0 +1,56 @@
+package caviar.storage;
+
+import java.io.IOException;
+import java.util.List;
+import caviar.exception.CaviarException;
+import caviar.task.Task;
+
+/**
+ * Converts task files between the text and binary storage formats.
+ *
+ * <p>The source format is detected from its header. Journal segments are not read, so a journaled
+ * store should be compacted with {@link Storage#save(List)} before it is converted.</p>
+ */
+public class TaskFileConverter {
+    private TaskFileConverter() {
+    }
+
+    /**
+     * Converts a task file to the given format.
+     *
+     * @param sourcePath The task file to read, in either format.
+     * @param targetPath The task file to write.
+     * @param isBinary   Whether to write the binary format rather than text.
+     * @return The number of tasks converted.
+     * @throws IOException     If either file cannot be accessed.
+     * @throws CaviarException If the source file contains invalid task data.
+     */
+    public static int convert(String sourcePath, String targetPath, boolean isBinary)
+            throws IOException, CaviarException {
+        List<Task> tasks = new Storage(sourcePath).load();
+        Storage target = new Storage(targetPath);
+        if (isBinary) {
+            target.enableBinaryFormat();
+        }
+        target.save(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Converts a task file from the command line.
+     *
+     * @param args {@code <source> <target> <text|binary>}
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !("text".equals(args[2]) || "binary".equals(args[2]))) {
+            System.out.println("Usage: TaskFileConverter <source> <target> <text|binary>");
+            return;
+        }
+        try {
+            int count = convert(args[0], args[1], "binary".equals(args[2]));
+            System.out.println("Roe! Converted " + count + " tasks to " + args[2] + ".");
+        } catch (IOException | CaviarException e) {
+            System.out.println("roe..!! Conversion failed: " + e.getMessage());
+        }
+    }
+}
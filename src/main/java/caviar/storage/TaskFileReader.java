@@ -0,0 +1,110 @@
+package caviar.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a task file line by line straight from a byte buffer.
+ *
+ * <p>Lines are split on {@code '\n'} without any regex or charset decoder state, and each line's raw bytes
+ * are fed into a running CRC32, so verifying the checksum trailer costs no extra pass or re-encoding.</p>
+ */
+class TaskFileReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final CRC32 checksum = new CRC32();
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int lineStart;
+    private int lineEnd;
+    private boolean isEndOfStream;
+
+    /**
+     * Constructs a {@code TaskFileReader} over the given stream.
+     *
+     * @param in The stream to read the task file from.
+     */
+    TaskFileReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next line, without its line terminator.
+     *
+     * @return The next line, or {@code null} at the end of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    String readLine() throws IOException {
+        // The previous line only counts towards the checksum once we know it was not the trailer
+        checksum.update(buffer, lineStart, lineEnd - lineStart);
+        lineStart = position;
+        lineEnd = position;
+
+        while (true) {
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    position = i + 1;
+                    lineEnd = position;
+                    return decode(lineStart, i);
+                }
+            }
+            position = limit;
+            if (isEndOfStream || !fill()) {
+                break;
+            }
+        }
+
+        lineEnd = limit;
+        return lineStart == limit ? null : decode(lineStart, limit);
+    }
+
+    /**
+     * Returns the CRC32 of every line read so far, excluding the most recent one.
+     */
+    long getChecksumBeforeLastLine() {
+        return checksum.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads more bytes, keeping the unfinished current line at the front of the buffer.
+     *
+     * @return {@code false} if the end of the stream was reached.
+     */
+    private boolean fill() throws IOException {
+        int carried = limit - lineStart;
+        if (carried == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else if (lineStart > 0) {
+            System.arraycopy(buffer, lineStart, buffer, 0, carried);
+        }
+        position -= lineStart;
+        lineStart = 0;
+        limit = carried;
+
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            isEndOfStream = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private String decode(int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package caviar.storage;
+
+import java.io.IOException;
+
+/**
+ * Background thread that coalesces write requests into batched writes.
+ *
+ * <p>The first request after an idle period opens a window of {@code flushIntervalMillis}.
+ * Every request that arrives within the window is folded into a single call to the drain action,
+ * which runs early if {@code maxPendingOps} requests pile up first. Callers never wait for the write.</p>
+ */
+class WriteBehindWriter {
+    private final Drain drain;
+    private final long flushIntervalMillis;
+    private final int maxPendingOps;
+    private final Thread thread;
+    private int pendingOps;
+    private boolean isClosed;
+
+    /**
+     * Writes out whatever has been requested so far.
+     */
+    interface Drain {
+        void run() throws IOException;
+    }
+
+    /**
+     * Constructs and starts a {@code WriteBehindWriter}.
+     *
+     * @param drain               The action that writes out all pending changes.
+     * @param flushIntervalMillis The longest time a request may wait before it is written.
+     * @param maxPendingOps       The number of requests that triggers a write before the window ends.
+     */
+    WriteBehindWriter(Drain drain, long flushIntervalMillis, int maxPendingOps) {
+        assert flushIntervalMillis > 0 : "Flush interval must be positive";
+        assert maxPendingOps > 0 : "Max pending ops must be positive";
+
+        this.drain = drain;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxPendingOps = maxPendingOps;
+        this.thread = new Thread(this::runLoop, "caviar-write-behind");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Requests a write. Returns immediately.
+     */
+    synchronized void submit() {
+        pendingOps++;
+        if (pendingOps == 1 || pendingOps >= maxPendingOps) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Writes out every pending request and stops the background thread.
+     * Calling this more than once has no further effect.
+     */
+    void close() {
+        synchronized (this) {
+            isClosed = true;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        while (awaitBatch()) {
+            try {
+                drain.run();
+            } catch (IOException e) {
+                System.out.println("roe..!! Error saving task.");
+            } catch (RuntimeException e) {
+                System.out.println("roe..!! Error saving task: " + e);
+            }
+        }
+    }
+
+    /**
+     * Blocks until a batch is ready to be written.
+     *
+     * @return {@code false} once the writer is closed and nothing is left to write.
+     */
+    private synchronized boolean awaitBatch() {
+        try {
+            while (pendingOps == 0 && !isClosed) {
+                wait();
+            }
+            long deadline = System.currentTimeMillis() + flushIntervalMillis;
+            long remaining = flushIntervalMillis;
+            while (pendingOps < maxPendingOps && !isClosed && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isClosed = true;
+        }
+
+        boolean hasBatch = pendingOps > 0;
+        pendingOps = 0;
+        return hasBatch || !isClosed;
+    }
+}
@@ -0,0 +1,191 @@
+package caviar.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import caviar.exception.CaviarException;
+
+/**
+ * Parses and formats the date/times of deadlines and events.
+ *
+ * <p>All formatters are compiled once. Instead of trying every supported format in turn and catching
+ * the failures, the likely format is picked from the shape of the input (length and separators),
+ * and the storage format {@code yyyy-MM-dd HH:mm} is read digit by digit. The remaining formats are
+ * only tried if the likely one does not match, so the accepted inputs are the same as before.</p>
+ */
+public final class DateTimeParser {
+    private static final DateTimeFormatter SLASH_DAY_FIRST = DateTimeFormatter.ofPattern("d/M/yyyy HHmm");
+    private static final DateTimeFormatter DASH_COMPACT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final DateTimeFormatter DASH_COLON_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter DASH_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("MMM d yyyy h:mm a");
+    private static final DateTimeFormatter SLASH_YEAR_FIRST = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("MMM d yyyy, h:mm a");
+
+    /** Date/time formats in the order they were historically tried; the date-only one is handled apart. */
+    private static final DateTimeFormatter[] DATE_TIME_FORMATS = {
+        SLASH_DAY_FIRST, DASH_COMPACT_TIME, DASH_COLON_TIME, MONTH_NAME, SLASH_YEAR_FIRST
+    };
+
+    private DateTimeParser() {
+    }
+
+    /**
+     * Parses a date/time in any of the supported formats.
+     *
+     * @param input The date/time string.
+     * @return The parsed date/time; a date without a time is taken to be at 00:00.
+     * @throws CaviarException If the input matches none of the supported formats.
+     */
+    public static LocalDateTime parse(String input) throws CaviarException {
+        LocalDateTime dateTime = parseStorageFormat(input);
+        if (dateTime != null) {
+            return dateTime;
+        }
+
+        DateTimeFormatter likelyFormat = guessFormat(input);
+        if (likelyFormat == DASH_DATE) {
+            LocalDate date = tryParseDate(input);
+            if (date != null) {
+                return date.atStartOfDay(); // Default time is 00:00
+            }
+        } else if (likelyFormat != null) {
+            dateTime = tryParseDateTime(input, likelyFormat);
+            if (dateTime != null) {
+                return dateTime;
+            }
+        }
+        return parseByTrial(input, likelyFormat);
+    }
+
+    /**
+     * Formats a date/time for display, e.g. {@code Feb 18 2025, 6:00 PM}.
+     *
+     * @param dateTime The date/time to format.
+     * @return The display string.
+     */
+    public static String formatForDisplay(LocalDateTime dateTime) {
+        return dateTime.format(DISPLAY);
+    }
+
+    /**
+     * Formats a date/time for the storage file, e.g. {@code 2025-02-18 18:00}.
+     *
+     * @param dateTime The date/time to format.
+     * @return The storage string.
+     */
+    public static String formatForStorage(LocalDateTime dateTime) {
+        return dateTime.format(DASH_COLON_TIME);
+    }
+
+    /**
+     * Reads {@code yyyy-MM-dd HH:mm}, the format every stored date uses, without a formatter.
+     *
+     * @return The date/time, or {@code null} if the input is not in this exact shape with valid fields.
+     */
+    private static LocalDateTime parseStorageFormat(String input) {
+        if (input.length() != 16 || input.charAt(4) != '-' || input.charAt(7) != '-'
+                || input.charAt(10) != ' ' || input.charAt(13) != ':') {
+            return null;
+        }
+        int year = digits(input, 0, 4);
+        int month = digits(input, 5, 7);
+        int day = digits(input, 8, 10);
+        int hour = digits(input, 11, 13);
+        int minute = digits(input, 14, 16);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return null; // Left to the formatter, which owns the handling of unusual values
+        }
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    /**
+     * Returns the value of the decimal digits in {@code input[start, end)}, or -1 if any is not a digit.
+     */
+    private static int digits(String input, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Picks the format the input most likely uses from its length and separators.
+     *
+     * @return The likely format, or {@code null} if the shape matches none of them.
+     */
+    private static DateTimeFormatter guessFormat(String input) {
+        if (input.isEmpty()) {
+            return null;
+        }
+        if (Character.isLetter(input.charAt(0))) {
+            return MONTH_NAME;
+        }
+        int firstSlash = input.indexOf('/');
+        if (firstSlash == 4) {
+            return SLASH_YEAR_FIRST;
+        }
+        if (firstSlash > 0) {
+            return SLASH_DAY_FIRST;
+        }
+        if (input.indexOf('-') != 4) {
+            return null;
+        }
+        if (input.length() == 10) {
+            return DASH_DATE;
+        }
+        return input.indexOf(':') >= 0 ? DASH_COLON_TIME : DASH_COMPACT_TIME;
+    }
+
+    /**
+     * Tries every supported format except the one already tried, in the historical order.
+     */
+    private static LocalDateTime parseByTrial(String input, DateTimeFormatter triedFormat) throws CaviarException {
+        for (DateTimeFormatter format : DATE_TIME_FORMATS) {
+            if (format == triedFormat) {
+                continue;
+            }
+            LocalDateTime dateTime = tryParseDateTime(input, format);
+            if (dateTime != null) {
+                return dateTime;
+            }
+        }
+        if (triedFormat != DASH_DATE) {
+            LocalDate date = tryParseDate(input);
+            if (date != null) {
+                return date.atStartOfDay();
+            }
+        }
+
+        throw new CaviarException("Please use a valid date format, roe..! Supported formats:\n"
+            + " - d/M/yyyy HHmm (e.g., 2/12/2019 1800)\n"
+            + " - yyyy-MM-dd HHmm (e.g., 2024-02-13 1800)\n"
+            + " - yyyy-MM-dd (e.g., 2024-02-13) (Default time 00:00)\n"
+            + " - MMM d yyyy h:mm a (e.g., Dec 2 2019 6:00 PM)\n"
+            + " - yyyy/MM/dd HH:mm (e.g., 2019/12/02 18:00)");
+    }
+
+    private static LocalDateTime tryParseDateTime(String input, DateTimeFormatter format) {
+        try {
+            return LocalDateTime.parse(input, format);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate tryParseDate(String input) {
+        try {
+            return LocalDate.parse(input, DASH_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
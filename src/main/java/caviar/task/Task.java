@@ -6,6 +6,8 @@ import caviar.exception.CaviarException;
  * Represents a generic task in the task list.
  */
 public class Task {
+    private static final String FIELD_SEPARATOR = " | ";
+
     protected String description;
     protected boolean isDone;
 
@@ -28,6 +30,15 @@ public class Task {
         return description;
     }
 
+    /**
+     * Returns whether the task is done.
+     *
+     * @return {@code true} if the task is marked as done.
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Marks the task as done.
      */
@@ -48,7 +59,7 @@ public class Task {
      * @return [X] if done, [ ] if not done.
      */
     public String getStatusIcon() {
-        return isDone ? "[X]" : "[ ]";
+        return isDone() ? "[X]" : "[ ]";
     }
 
     /**
@@ -66,51 +77,76 @@ public class Task {
             taskType = "E";
         }
 
-        String status = isDone ? "1" : "0";
+        String status = isDone() ? "1" : "0";
 
-        return taskType + " | " + status + " | " + description;
+        return taskType + " | " + status + " | " + getDescription();
     }
 
     @Override
     public String toString() {
-        return getStatusIcon() + " " + description;
+        return getStatusIcon() + " " + getDescription();
     }
 
     /**
      * Recreates a Task object from a storage string.
      *
+     * <p>The fields are split on {@code " | "} by hand rather than with a regex. The date fields
+     * are taken from the end of the line, so a description may itself contain {@code " | "}.</p>
+     *
      * @param data The storage string containing task data.
      * @return The reconstructed Task object.
      * @throws CaviarException If the data is invalid.
      */
     public static Task fromStorageString(String data) throws CaviarException {
-        String[] parts = data.split(" \\| ");
-        Task task = createTask(parts);
-        if (parts[1].equals("1")) {
+        int typeEnd = data.indexOf(FIELD_SEPARATOR);
+        int statusEnd = typeEnd < 0 ? -1 : data.indexOf(FIELD_SEPARATOR, typeEnd + FIELD_SEPARATOR.length());
+        if (statusEnd < 0) {
+            throw new CaviarException("Invalid task format in storage, roe..!!");
+        }
+        String type = data.substring(0, typeEnd);
+        boolean isDone = data.startsWith("1", typeEnd + FIELD_SEPARATOR.length())
+            && statusEnd == typeEnd + FIELD_SEPARATOR.length() + 1;
+
+        Task task = createTask(type, data, statusEnd + FIELD_SEPARATOR.length());
+        if (isDone) {
             task.markAsDone();
         }
         return task;
     }
 
-    private static Task createTask(String[] parts) throws CaviarException {
-        String type = parts[0];
-        String description = parts[2];
+    private static Task createTask(String type, String data, int descriptionStart) throws CaviarException {
         if ("T".equals(type)) {
-            return new Todo(description);
+            return new Todo(data.substring(descriptionStart));
         }
         if ("D".equals(type)) {
-            if (parts.length < 4) {
+            int byStart = lastFieldStart(data, data.length(), descriptionStart);
+            if (byStart < 0) {
                 throw new CaviarException("Invalid deadline format in storage, roe..!!");
             }
-            return new Deadline(description, parts[3]);
+            return new Deadline(data.substring(descriptionStart, byStart - FIELD_SEPARATOR.length()),
+                data.substring(byStart));
         }
         if ("E".equals(type)) {
-            if (parts.length < 5) {
+            int toStart = lastFieldStart(data, data.length(), descriptionStart);
+            int fromStart = toStart < 0 ? -1 : lastFieldStart(data, toStart - FIELD_SEPARATOR.length(),
+                descriptionStart);
+            if (fromStart < 0) {
                 throw new CaviarException("Invalid event format in storage, roe..!!");
             }
-            return new Event(description, parts[3], parts[4]);
+            return new Event(data.substring(descriptionStart, fromStart - FIELD_SEPARATOR.length()),
+                data.substring(fromStart, toStart - FIELD_SEPARATOR.length()),
+                data.substring(toStart));
         }
         throw new IllegalArgumentException("Invalid task type in storage: " + type);
     }
 
+    /**
+     * Returns the start of the last field that ends at {@code end}, or -1 if the separator before it
+     * would fall before {@code minStart}.
+     */
+    private static int lastFieldStart(String data, int end, int minStart) {
+        int separator = data.lastIndexOf(FIELD_SEPARATOR, end - FIELD_SEPARATOR.length());
+        return separator < minStart ? -1 : separator + FIELD_SEPARATOR.length();
+    }
+
 }
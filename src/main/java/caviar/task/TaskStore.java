@@ -0,0 +1,659 @@
+package caviar.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * A list of tasks stored column by column rather than as one set of objects per task, for very large lists.
+ *
+ * <p>Each task is a row: its type is a {@code byte}, its status a bit in a {@link BitSet}, its dates are minutes
+ * since the epoch in {@code int}s, and its description is UTF-8 bytes packed into one shared array. A task
+ * therefore takes about 30 bytes plus its description, where as objects it takes several times that, a
+ * {@link Deadline} being four objects besides its description.</p>
+ *
+ * <p>{@link #get(int)} returns a view of the row: a {@link Todo}, {@link Deadline} or {@link Event} that reads
+ * the row and writes its status back to it. Views are not kept, so reading every task, e.g. to save or index
+ * them, leaves nothing behind in the store, and reading never changes the store. Each call may return a new
+ * view, but views of the same task are equal, since a task keeps its id while the store moves its row. A view
+ * keeps its values when its task is removed from the store.</p>
+ *
+ * <p>{@link #append(Task)} copies a task into the columns, which is how loaders fill the store and how a
+ * {@code TaskList} adds tasks. Tasks added through the {@code List} methods are kept as they are instead, since
+ * the caller may still hold and change them, and so are tasks that the columns cannot hold: dates that are not
+ * whole minutes, and types of task other than the three above. Each of those takes as much memory as it would
+ * in any other list.</p>
+ *
+ * <p>The savings are in the store itself. Search indexes built over it hold a view of every task they index, so
+ * a list that is also searched or sorted uses more memory than the store alone.</p>
+ */
+public class TaskStore extends AbstractList<Task> implements RandomAccess {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final byte OBJECT = 3; // A task kept as it is, in objects
+    private static final int DETACHED = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int MIN_ROWS_TO_COMPACT = 1024;
+
+    // Columns, indexed by row. Apart from the done bits, a row is never changed once written, so a copy
+    // can share the arrays with the store it was copied from.
+    private byte[] types;
+    private BitSet done;
+    private int[] startMinutes; // The deadline of a deadline, or the start of an event
+    private int[] endMinutes; // The end of an event
+    private int[] descriptionStarts;
+    private int[] descriptionLengths;
+    private byte[] descriptions;
+    private int descriptionsSize;
+    private Task[] objects; // The task kept as it is, for OBJECT rows
+    private int rowCount;
+    private boolean isSharingColumns;
+
+    // The row of each task by id, or DETACHED once the row of a removed task is dropped. Until rows are first
+    // dropped every task has the id of its row, so this is null and takes no memory.
+    private int[] rowsById;
+    private int idCount;
+
+    private int[] ids; // The id of each task, in list order; removed tasks leave their rows unused
+    private int size;
+
+    /**
+     * Constructs an empty {@code TaskStore}.
+     */
+    public TaskStore() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY * 16);
+    }
+
+    private TaskStore(int capacity, int descriptionCapacity) {
+        types = new byte[capacity];
+        done = new BitSet(capacity);
+        startMinutes = new int[capacity];
+        endMinutes = new int[capacity];
+        descriptionStarts = new int[capacity];
+        descriptionLengths = new int[capacity];
+        descriptions = new byte[descriptionCapacity];
+        objects = new Task[capacity];
+        ids = new int[capacity];
+    }
+
+    /**
+     * Appends a copy of the task held in the columns, so that {@link #get(int)} returns a view of the copy rather
+     * than the task itself. Later changes to {@code task} are not seen by the store.
+     *
+     * @param task The task to append.
+     */
+    public void append(Task task) {
+        int id = newId(appendRow(task));
+        ensureListCapacity(size + 1);
+        ids[size++] = id;
+        modCount++;
+    }
+
+    @Override
+    public Task get(int index) {
+        int id = ids[checkIndex(index)];
+        int row = rowOf(id);
+        Task task = objects[row];
+        return task != null ? task : createView(id, row);
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = release(ids[checkIndex(index)]);
+        ids[index] = newId(newObjectRow(task));
+        modCount++;
+        compactIfMostlyUnused();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int id = newId(newObjectRow(task));
+        ensureListCapacity(size + 1);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = release(ids[checkIndex(index)]);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        modCount++;
+        compactIfMostlyUnused();
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of this store that later changes to it do not affect, e.g. for a background save.
+     *
+     * <p>The columns are shared, until the copy itself is changed, so only the list order, the status bits and
+     * the tasks kept as they are are copied. Those tasks themselves are shared, as in a shallow copy.</p>
+     *
+     * @return The copy.
+     */
+    public TaskStore copy() {
+        TaskStore copy = new TaskStore(0, 0);
+        copy.types = types;
+        copy.done = (BitSet) done.clone();
+        copy.startMinutes = startMinutes;
+        copy.endMinutes = endMinutes;
+        copy.descriptionStarts = descriptionStarts;
+        copy.descriptionLengths = descriptionLengths;
+        copy.descriptions = descriptions;
+        copy.descriptionsSize = descriptionsSize;
+        copy.objects = Arrays.copyOf(objects, rowCount);
+        copy.rowCount = rowCount;
+        copy.rowsById = rowsById;
+        copy.idCount = idCount;
+        copy.ids = Arrays.copyOf(ids, size);
+        copy.size = size;
+        // This store only writes rows past those the copy has, so it is only the copy that must not write to them
+        copy.isSharingColumns = true;
+        return copy;
+    }
+
+    /**
+     * Removes the row of a task from use, returning the task with the values it has now.
+     */
+    private Task release(int id) {
+        int row = rowOf(id);
+        Task task = objects[row];
+        if (task == null) {
+            Task view = createView(id, row);
+            ((View) view).detach();
+            return view;
+        }
+        objects[row] = null;
+        return task;
+    }
+
+    private Task createView(int id, int row) {
+        switch (types[row]) {
+        case TODO:
+            return new TodoView(id);
+        case DEADLINE:
+            return new DeadlineView(id);
+        case EVENT:
+            return new EventView(id);
+        default:
+            throw new IllegalStateException("Row " + row + " has no columns to view");
+        }
+    }
+
+    private int appendRow(Task task) {
+        byte type = columnTypeOf(task);
+        if (type == OBJECT) {
+            return newObjectRow(task);
+        }
+        int row = newRow(type);
+        if (task.isDone()) {
+            done.set(row);
+        }
+        writeDescription(row, task.getDescription().getBytes(StandardCharsets.UTF_8), 0, -1);
+        if (type == DEADLINE) {
+            startMinutes[row] = toMinutes(((Deadline) task).getBy());
+        } else if (type == EVENT) {
+            startMinutes[row] = toMinutes(((Event) task).getFrom());
+            endMinutes[row] = toMinutes(((Event) task).getTo());
+        }
+        return row;
+    }
+
+    private int newObjectRow(Task task) {
+        int row = newRow(OBJECT);
+        objects[row] = task;
+        return row;
+    }
+
+    /**
+     * Gives a new task in the given row its id.
+     */
+    private int newId(int row) {
+        if (rowsById == null) {
+            return idCount++; // No rows have been dropped, so this is the id of the row
+        }
+        if (idCount == rowsById.length) {
+            rowsById = Arrays.copyOf(rowsById, grow(idCount, idCount + 1));
+        }
+        rowsById[idCount] = row;
+        return idCount++;
+    }
+
+    private int rowOf(int id) {
+        return rowsById == null ? id : rowsById[id];
+    }
+
+    /**
+     * Returns the row of a task that a view reads.
+     *
+     * @throws IllegalStateException If the task was removed and its row has since been dropped.
+     */
+    private int rowOfView(int id) {
+        int row = rowOf(id);
+        if (row == DETACHED) {
+            throw new IllegalStateException("Task " + id + " was removed from the store");
+        }
+        return row;
+    }
+
+    private boolean isSameTask(int id, Object other) {
+        return other instanceof View && ((View) other).getStore() == this && ((View) other).getId() == id;
+    }
+
+    private int newRow(byte type) {
+        if (isSharingColumns) {
+            unshareColumns();
+        }
+        ensureRowCapacity(rowCount + 1);
+        int row = rowCount++;
+        types[row] = type;
+        done.clear(row);
+        descriptionStarts[row] = 0;
+        descriptionLengths[row] = 0;
+        return row;
+    }
+
+    /**
+     * Copies {@code length} bytes of {@code source} from {@code start} into the description of the row,
+     * or all of it if {@code length} is negative.
+     */
+    private void writeDescription(int row, byte[] source, int start, int length) {
+        int byteCount = length < 0 ? source.length : length;
+        ensureDescriptionCapacity((long) descriptionsSize + byteCount);
+        System.arraycopy(source, start, descriptions, descriptionsSize, byteCount);
+        descriptionStarts[row] = descriptionsSize;
+        descriptionLengths[row] = byteCount;
+        descriptionsSize += byteCount;
+    }
+
+    private String readDescription(int row) {
+        return new String(descriptions, descriptionStarts[row], descriptionLengths[row], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the type of row that holds the task, or {@link #OBJECT} if the columns cannot hold it.
+     */
+    private static byte columnTypeOf(Task task) {
+        if (task.getDescription() == null) {
+            return OBJECT;
+        } else if (task instanceof Todo) {
+            return TODO;
+        } else if (task instanceof Deadline) {
+            return fitsInColumn(((Deadline) task).getBy()) ? DEADLINE : OBJECT;
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            return fitsInColumn(event.getFrom()) && fitsInColumn(event.getTo()) ? EVENT : OBJECT;
+        }
+        return OBJECT;
+    }
+
+    private static boolean fitsInColumn(LocalDateTime dateTime) {
+        if (dateTime == null || dateTime.getSecond() != 0 || dateTime.getNano() != 0) {
+            return false;
+        }
+        long minutes = dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        return minutes >= Integer.MIN_VALUE && minutes <= Integer.MAX_VALUE;
+    }
+
+    private static int toMinutes(LocalDateTime dateTime) {
+        return (int) (dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private static LocalDateTime fromMinutes(int minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Rewrites the columns without the rows of removed tasks once those are the majority. Tasks keep their ids,
+     * so views handed out read the new rows.
+     */
+    private void compactIfMostlyUnused() {
+        if (rowCount < MIN_ROWS_TO_COMPACT || rowCount - size <= size) {
+            return;
+        }
+        long liveDescriptionBytes = 0;
+        for (int i = 0; i < size; i++) {
+            liveDescriptionBytes += descriptionLengths[rowOf(ids[i])];
+        }
+        TaskStore compacted = new TaskStore(Math.max(size, INITIAL_CAPACITY),
+            (int) Math.max(liveDescriptionBytes, INITIAL_CAPACITY));
+        int[] newRowsById = new int[Math.max(idCount, INITIAL_CAPACITY)];
+        Arrays.fill(newRowsById, DETACHED);
+        for (int i = 0; i < size; i++) {
+            int row = rowOf(ids[i]);
+            int newRow = compacted.newRow(types[row]);
+            compacted.done.set(newRow, done.get(row));
+            compacted.writeDescription(newRow, descriptions, descriptionStarts[row], descriptionLengths[row]);
+            compacted.startMinutes[newRow] = startMinutes[row];
+            compacted.endMinutes[newRow] = endMinutes[row];
+            compacted.objects[newRow] = objects[row];
+            newRowsById[ids[i]] = newRow;
+        }
+        rowsById = newRowsById;
+        types = compacted.types;
+        done = compacted.done;
+        startMinutes = compacted.startMinutes;
+        endMinutes = compacted.endMinutes;
+        descriptionStarts = compacted.descriptionStarts;
+        descriptionLengths = compacted.descriptionLengths;
+        descriptions = compacted.descriptions;
+        descriptionsSize = compacted.descriptionsSize;
+        objects = compacted.objects;
+        rowCount = compacted.rowCount;
+        isSharingColumns = false;
+    }
+
+    /**
+     * Gives this copy its own columns, before it writes a row that the store it was copied from may also write.
+     */
+    private void unshareColumns() {
+        types = Arrays.copyOf(types, rowCount);
+        startMinutes = Arrays.copyOf(startMinutes, rowCount);
+        endMinutes = Arrays.copyOf(endMinutes, rowCount);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, rowCount);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, rowCount);
+        descriptions = Arrays.copyOf(descriptions, descriptionsSize);
+        if (rowsById != null) {
+            rowsById = Arrays.copyOf(rowsById, Math.max(idCount, INITIAL_CAPACITY));
+        }
+        isSharingColumns = false;
+    }
+
+    private void ensureRowCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = grow(types.length, capacity);
+        types = Arrays.copyOf(types, newCapacity);
+        startMinutes = Arrays.copyOf(startMinutes, newCapacity);
+        endMinutes = Arrays.copyOf(endMinutes, newCapacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, newCapacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+        objects = Arrays.copyOf(objects, newCapacity);
+    }
+
+    private void ensureListCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, grow(ids.length, capacity));
+        }
+    }
+
+    private void ensureDescriptionCapacity(long capacity) {
+        if (capacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Task descriptions take more than 2 GB");
+        }
+        if (capacity > descriptions.length) {
+            descriptions = Arrays.copyOf(descriptions, grow(descriptions.length, (int) capacity));
+        }
+    }
+
+    private static int grow(int length, int capacity) {
+        return (int) Math.min(MAX_ARRAY_SIZE, Math.max(capacity, length + (length >> 1) + 1L));
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    /**
+     * A task that reads its row of the store until it is detached from it.
+     */
+    private interface View {
+        /**
+         * Returns the store that the task is in.
+         */
+        TaskStore getStore();
+
+        /**
+         * Returns the id of the task, which stays the same when the store moves it to another row.
+         */
+        int getId();
+
+        /**
+         * Copies the values of the row into the task, which no longer reads the store from then on.
+         */
+        void detach();
+    }
+
+    private final class TodoView extends Todo implements View {
+        private final int id;
+        private boolean isDetached;
+
+        private TodoView(int id) {
+            super(null);
+            this.id = id;
+        }
+
+        @Override
+        public String getDescription() {
+            return isDetached ? description : readDescription(rowOfView(id));
+        }
+
+        @Override
+        public boolean isDone() {
+            return isDetached ? isDone : done.get(rowOfView(id));
+        }
+
+        @Override
+        public void markAsDone() {
+            if (isDetached) {
+                super.markAsDone();
+            } else {
+                done.set(rowOfView(id));
+            }
+        }
+
+        @Override
+        public void markAsNotDone() {
+            if (isDetached) {
+                super.markAsNotDone();
+            } else {
+                done.clear(rowOfView(id));
+            }
+        }
+
+        @Override
+        public TaskStore getStore() {
+            return TaskStore.this;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public void detach() {
+            if (!isDetached) {
+                int row = rowOfView(id);
+                description = readDescription(row);
+                isDone = done.get(row);
+                isDetached = true;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isSameTask(id, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    private final class DeadlineView extends Deadline implements View {
+        private final int id;
+        private boolean isDetached;
+
+        private DeadlineView(int id) {
+            super(null, (LocalDateTime) null);
+            this.id = id;
+        }
+
+        @Override
+        public String getDescription() {
+            return isDetached ? description : readDescription(rowOfView(id));
+        }
+
+        @Override
+        public boolean isDone() {
+            return isDetached ? isDone : done.get(rowOfView(id));
+        }
+
+        @Override
+        public void markAsDone() {
+            if (isDetached) {
+                super.markAsDone();
+            } else {
+                done.set(rowOfView(id));
+            }
+        }
+
+        @Override
+        public void markAsNotDone() {
+            if (isDetached) {
+                super.markAsNotDone();
+            } else {
+                done.clear(rowOfView(id));
+            }
+        }
+
+        @Override
+        public LocalDateTime getBy() {
+            return isDetached ? by : fromMinutes(startMinutes[rowOfView(id)]);
+        }
+
+        @Override
+        public TaskStore getStore() {
+            return TaskStore.this;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public void detach() {
+            if (!isDetached) {
+                int row = rowOfView(id);
+                description = readDescription(row);
+                isDone = done.get(row);
+                by = fromMinutes(startMinutes[row]);
+                isDetached = true;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isSameTask(id, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    private final class EventView extends Event implements View {
+        private final int id;
+        private boolean isDetached;
+
+        private EventView(int id) {
+            super(null, (LocalDateTime) null, (LocalDateTime) null);
+            this.id = id;
+        }
+
+        @Override
+        public String getDescription() {
+            return isDetached ? description : readDescription(rowOfView(id));
+        }
+
+        @Override
+        public boolean isDone() {
+            return isDetached ? isDone : done.get(rowOfView(id));
+        }
+
+        @Override
+        public void markAsDone() {
+            if (isDetached) {
+                super.markAsDone();
+            } else {
+                done.set(rowOfView(id));
+            }
+        }
+
+        @Override
+        public void markAsNotDone() {
+            if (isDetached) {
+                super.markAsNotDone();
+            } else {
+                done.clear(rowOfView(id));
+            }
+        }
+
+        @Override
+        public LocalDateTime getFrom() {
+            return isDetached ? from : fromMinutes(startMinutes[rowOfView(id)]);
+        }
+
+        @Override
+        public LocalDateTime getTo() {
+            return isDetached ? to : fromMinutes(endMinutes[rowOfView(id)]);
+        }
+
+        @Override
+        public TaskStore getStore() {
+            return TaskStore.this;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public void detach() {
+            if (!isDetached) {
+                int row = rowOfView(id);
+                description = readDescription(row);
+                isDone = done.get(row);
+                from = fromMinutes(startMinutes[row]);
+                to = fromMinutes(endMinutes[row]);
+                isDetached = true;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return isSameTask(id, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package caviar.tenant;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import caviar.command.TaskList;
+import caviar.exception.CaviarException;
+import caviar.storage.Storage;
+
+/**
+ * Hosts the task lists of many users in one JVM, each backed by its own task file in a data directory.
+ *
+ * <p>A user's {@link TaskList} is loaded the first time it is used and kept in memory while it is among
+ * the most recently used ones. Once more than {@code maxLoadedTenants} lists, or more than
+ * {@code maxLoadedTasks} tasks in total, are loaded, the least recently used lists are saved, their
+ * storage is closed and they are dropped, to be loaded again on their next use. A list is never evicted
+ * while a call to {@link #withTaskList(String, TenantAction)} is using it.</p>
+ *
+ * <p>Calls for the same user run one at a time, and calls for different users run in parallel, including
+ * the loading of their lists. User names are not case-sensitive, as their task files may not be either.
+ * Hits, loads, evictions and load time are counted and can be read through the getters.</p>
+ */
+public class TenantTaskLists implements Closeable {
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String FILE_SUFFIX = ".txt";
+
+    private final Path dataDirectory;
+    private final int maxLoadedTenants;
+    private final int maxLoadedTasks;
+    private final Map<String, Tenant> loaded = new LinkedHashMap<>(16, 0.75f, true); // In LRU order
+    private final Set<String> unloading = new HashSet<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong loadTimeNanos = new AtomicLong();
+    private long loadedTaskCount;
+    private boolean isClosed;
+
+    /**
+     * Constructs a registry for the task files in the given directory, creating it if needed.
+     *
+     * @param dataDirectory    The directory holding one task file per user.
+     * @param maxLoadedTenants The number of task lists to keep in memory.
+     * @param maxLoadedTasks   The number of tasks, across all users, to keep in memory.
+     * @throws IOException If the directory cannot be created.
+     */
+    public TenantTaskLists(Path dataDirectory, int maxLoadedTenants, int maxLoadedTasks) throws IOException {
+        assert maxLoadedTenants > 0 && maxLoadedTasks > 0 : "Budgets must be positive";
+
+        this.dataDirectory = Files.createDirectories(dataDirectory);
+        this.maxLoadedTenants = maxLoadedTenants;
+        this.maxLoadedTasks = maxLoadedTasks;
+    }
+
+    /**
+     * Runs an action on a user's task list, loading it first if it is not in memory.
+     *
+     * <p>No other call for the same user runs at the same time, and the list stays loaded until the action
+     * returns. The action should save its changes, e.g. through the parser, before returning.</p>
+     *
+     * @param tenantId The user, made of letters, digits, {@code _} and {@code -}, in any case.
+     * @param action   The action to run.
+     * @param <T>      The result type of the action.
+     * @return The result of the action.
+     * @throws CaviarException If the user name is invalid, their task file is corrupted or the action fails.
+     * @throws IOException     If the task file cannot be read or a task list cannot be saved on eviction.
+     */
+    public <T> T withTaskList(String tenantId, TenantAction<T> action) throws CaviarException, IOException {
+        Tenant tenant = acquire(tenantId);
+        try {
+            synchronized (tenant) {
+                T result = action.apply(tenant.taskList, tenant.storage);
+                tenant.resize(tenant.taskList.getTasks().size());
+                return result;
+            }
+        } finally {
+            release(tenant);
+        }
+    }
+
+    /**
+     * Saves and unloads every task list. Calling this more than once has no further effect.
+     *
+     * @throws IOException If a task list cannot be saved.
+     */
+    @Override
+    public void close() throws IOException {
+        List<Tenant> tenants;
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            while (loaded.values().stream().anyMatch(tenant -> tenant.taskList == null)) {
+                awaitChange(); // Let lists being loaded finish, so they can be saved like the others
+            }
+            tenants = new ArrayList<>(loaded.values());
+            loaded.clear();
+            loadedTaskCount = 0;
+        }
+        IOException failure = null;
+        for (Tenant tenant : tenants) {
+            try {
+                unload(tenant);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found the task list already in memory.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to load the task list from disk.
+     */
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * Returns the number of task lists unloaded to stay within the budget.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Returns the total time spent loading task lists from disk, in nanoseconds.
+     */
+    public long getLoadTimeNanos() {
+        return loadTimeNanos.get();
+    }
+
+    /**
+     * Returns the number of task lists currently in memory.
+     */
+    public synchronized int getLoadedTenantCount() {
+        return loaded.size();
+    }
+
+    /**
+     * Returns the number of tasks currently in memory, across all users.
+     */
+    public synchronized long getLoadedTaskCount() {
+        return loadedTaskCount;
+    }
+
+    /**
+     * Returns the metrics in one line, e.g. for logging.
+     *
+     * @return A summary of the hit rate, loads, evictions and memory use.
+     */
+    public String describeMetrics() {
+        long hits = getHitCount();
+        long loads = getLoadCount();
+        long lookups = hits + loads;
+        return String.format("lookups=%d hitRate=%.1f%% loads=%d avgLoadMs=%.2f evictions=%d tenants=%d tasks=%d",
+            lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups, loads,
+            loads == 0 ? 0.0 : getLoadTimeNanos() / 1e6 / loads, getEvictionCount(),
+            getLoadedTenantCount(), getLoadedTaskCount());
+    }
+
+    /**
+     * Returns the loaded tenant, loading it if needed, and pins it in memory until it is released.
+     *
+     * <p>The list is loaded without holding the registry's lock, so other users are not held up. Meanwhile
+     * a placeholder stands in for it, and other calls for the same user wait for the load to finish.</p>
+     */
+    private Tenant acquire(String tenantId) throws CaviarException, IOException {
+        if (tenantId == null || !TENANT_ID.matcher(tenantId).matches()) {
+            throw new CaviarException("Invalid user name. Use letters, digits, _ or - only.");
+        }
+        String id = tenantId.toLowerCase(Locale.ROOT);
+        Tenant tenant;
+        synchronized (this) {
+            tenant = findOrReserve(id);
+            tenant.pinCount++;
+            if (tenant.taskList != null) {
+                return tenant;
+            }
+        }
+        load(tenant);
+        return tenant;
+    }
+
+    /**
+     * Returns the loaded tenant, or a new placeholder for it that the caller must load, once no other call
+     * is loading or saving its list.
+     */
+    private Tenant findOrReserve(String id) throws IOException {
+        assert Thread.holdsLock(this);
+        while (true) {
+            if (isClosed) {
+                throw new IllegalStateException("Task lists are closed");
+            }
+            Tenant tenant = loaded.get(id);
+            if (tenant == null && !unloading.contains(id)) {
+                tenant = new Tenant(id, new Storage(dataDirectory.resolve(id + FILE_SUFFIX).toString(), true));
+                loaded.put(id, tenant);
+                return tenant;
+            }
+            if (tenant != null && tenant.taskList != null) {
+                hitCount.incrementAndGet();
+                return tenant;
+            }
+            awaitChange(); // The list is being loaded, or saved after eviction before its file is read again
+        }
+    }
+
+    /**
+     * Loads the list of a reserved tenant. If loading fails, the placeholder is dropped so the next call
+     * tries again.
+     */
+    private void load(Tenant tenant) throws CaviarException, IOException {
+        long start = System.nanoTime();
+        TaskList taskList = null;
+        try {
+            taskList = new TaskList(tenant.storage);
+        } finally {
+            synchronized (this) {
+                if (taskList != null) {
+                    loadTimeNanos.addAndGet(System.nanoTime() - start);
+                    loadCount.incrementAndGet();
+                    tenant.taskList = taskList;
+                    tenant.resize(taskList.getTasks().size());
+                } else {
+                    tenant.pinCount--;
+                    loaded.remove(tenant.id);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void awaitChange() throws IOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for tasks to be loaded or saved", e);
+        }
+    }
+
+    private void release(Tenant tenant) throws IOException {
+        List<Tenant> evicted = new ArrayList<>();
+        synchronized (this) {
+            tenant.pinCount--;
+            Iterator<Tenant> leastRecentlyUsed = loaded.values().iterator();
+            while (leastRecentlyUsed.hasNext()
+                    && (loaded.size() > maxLoadedTenants || loadedTaskCount > maxLoadedTasks)) {
+                Tenant candidate = leastRecentlyUsed.next();
+                if (candidate.pinCount == 0) {
+                    leastRecentlyUsed.remove();
+                    loadedTaskCount -= candidate.taskCount;
+                    unloading.add(candidate.id);
+                    evicted.add(candidate);
+                }
+            }
+        }
+        evictionCount.addAndGet(evicted.size());
+        IOException failure = null;
+        for (Tenant candidate : evicted) {
+            try {
+                unload(candidate);
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                finishUnloading(candidate.id);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized void finishUnloading(String tenantId) {
+        unloading.remove(tenantId);
+        notifyAll();
+    }
+
+    private static void unload(Tenant tenant) throws IOException {
+        synchronized (tenant) {
+            tenant.taskList.saveTasks();
+            tenant.storage.close();
+        }
+    }
+
+    /**
+     * An action run on a user's task list.
+     *
+     * @param <T> The result type of the action.
+     */
+    @FunctionalInterface
+    public interface TenantAction<T> {
+        /**
+         * Runs the action.
+         *
+         * @param taskList The user's task list.
+         * @param storage  The storage backing the task list.
+         * @return The result of the action.
+         * @throws CaviarException If the action fails.
+         * @throws IOException     If the action cannot save its changes.
+         */
+        T apply(TaskList taskList, Storage storage) throws CaviarException, IOException;
+    }
+
+    /**
+     * A loaded task list and the bookkeeping needed to evict it.
+     */
+    private final class Tenant {
+        private final String id;
+        private final Storage storage;
+        private TaskList taskList; // Null while loading; guarded by the enclosing instance
+        private int pinCount; // Guarded by the enclosing instance
+        private int taskCount; // Guarded by the enclosing instance
+
+        private Tenant(String id, Storage storage) {
+            this.id = id;
+            this.storage = storage;
+        }
+
+        private void resize(int newTaskCount) {
+            synchronized (TenantTaskLists.this) {
+                loadedTaskCount += newTaskCount - taskCount;
+                taskCount = newTaskCount;
+            }
+        }
+    }
+}
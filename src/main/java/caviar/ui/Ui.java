@@ -1,24 +1,48 @@
 package caviar.ui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Scanner;
 
 /**
  * Handles user interaction with Caviar.
+ *
+ * <p>Messages are written to a sink, which is standard output for the CLI. A {@code Ui} over its own
+ * sink, such as a {@code StringBuilder}, collects the response to a single request, so requests
+ * handled at the same time do not mix their output.</p>
  */
 public class Ui {
+    private static final String NEW_LINE = System.lineSeparator();
+
     private final Scanner scanner;
+    private final Appendable out;
 
+    /**
+     * Constructs a {@code Ui} that reads commands from standard input and writes to standard output.
+     */
     public Ui() {
         this.scanner = new Scanner(System.in);
+        this.out = System.out;
+    }
+
+    /**
+     * Constructs a {@code Ui} that writes messages to the given sink and cannot read commands.
+     *
+     * @param out The sink to write messages to.
+     */
+    public Ui(Appendable out) {
+        assert out != null : "Output sink cannot be null";
+        this.scanner = null;
+        this.out = out;
     }
 
     /**
      * Displays the welcome message for CLI.
      */
     public void showWelcome() {
-        System.out.println("Hello! I'm Caviar. Roe!");
-        System.out.println("What can I do for you?");
-        System.out.println("______________________\n");
+        showMessage("Hello! I'm Caviar. Roe!");
+        showMessage("What can I do for you?");
+        showMessage("______________________\n");
     }
 
     /**
@@ -26,6 +50,9 @@ public class Ui {
      * @return User command as a String.
      */
     public String readCommand() {
+        if (scanner == null) {
+            throw new IllegalStateException("This Ui has no input to read commands from");
+        }
         return scanner.nextLine().trim();
     }
 
@@ -34,17 +61,23 @@ public class Ui {
      * @param message Message to display.
      */
     public void showMessage(String message) {
-        System.out.println(message);
+        try {
+            out.append(message).append(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
      * Displays the divider line.
      */
     public void showLine() {
-        System.out.println("______________________");
+        showMessage("______________________");
     }
 
     public void close() {
-        scanner.close();
+        if (scanner != null) {
+            scanner.close();
+        }
     }
 }
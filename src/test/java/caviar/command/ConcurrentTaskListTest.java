@@ -0,0 +1,150 @@
+package caviar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import caviar.storage.Storage;
+import caviar.task.Deadline;
+import caviar.task.Task;
+import caviar.task.Todo;
+
+/**
+ * Tests the behavior of the {@link ConcurrentTaskList} class under concurrent use.
+ */
+class ConcurrentTaskListTest {
+    private static final int READER_COUNT = 4;
+    private static final int WRITE_COUNT = 20_000;
+    private static final int WINDOW = 100;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that readers running alongside a writer always see a consistent list.
+     *
+     * <p>The writer appends numbered tasks and deletes the oldest once the list holds {@code WINDOW} of them,
+     * so any snapshot must be a run of consecutive numbers, and every query must agree with the snapshot
+     * it was taken around.</p>
+     *
+     * @throws Exception If a thread fails or the test times out.
+     */
+    @Test
+    void testReadersSeeConsistentListWhileWriting() throws Exception {
+        ConcurrentTaskList taskList = new ConcurrentTaskList();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(READER_COUNT + 1);
+
+        executor.submit(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < WRITE_COUNT; i++) {
+                    if (i % 2 == 0) {
+                        taskList.addTask(new Todo("task " + i));
+                    } else {
+                        taskList.addTask(new Deadline("task " + i, "2025-02-18 1800"));
+                    }
+                    if (taskList.getTasks().size() > WINDOW) {
+                        taskList.deleteTask(0);
+                    }
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            } finally {
+                isWriting.set(false);
+            }
+            return null;
+        });
+        for (int r = 0; r < READER_COUNT; r++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    while (isWriting.get()) {
+                        assertConsecutive(taskList.getTasks());
+                        int listed = taskList.listTasks().split(System.lineSeparator()).length - 1;
+                        assertTrue(listed <= WINDOW + 1, "The listing should never show a half-applied change.");
+                        assertTrue(taskList.findTasks("task").size() <= WINDOW + 1);
+                        List<Deadline> due = taskList.findDeadlinesBetween(LocalDate.of(2025, 2, 18),
+                            LocalDate.of(2025, 2, 18));
+                        assertTrue(due.size() <= WINDOW / 2 + 1);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "Stress test timed out.");
+        assertTrue(failures.isEmpty(), () -> "Concurrent access failed: " + failures.peek());
+        assertEquals(WINDOW, taskList.getTasks().size());
+        assertEquals(WINDOW, taskList.findTasks("task").size());
+    }
+
+    /**
+     * Tests that a transaction keeps other writers out until it ends, so rolling it back by position
+     * does not undo their changes.
+     *
+     * @throws Exception If a thread fails or the test times out.
+     */
+    @Test
+    void testTransactionIsIsolatedFromOtherWriters() throws Exception {
+        ConcurrentTaskList taskList = new ConcurrentTaskList();
+        taskList.addTask(new Todo("task 0"));
+        taskList.beginTransaction();
+        taskList.addTask(new Todo("task 1"));
+        taskList.deleteTask(0);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> otherWriter = executor.submit(() -> taskList.addTask(new Todo("task 2")));
+        Thread.sleep(100);
+        assertFalse(otherWriter.isDone(), "Another writer should wait for the transaction to end.");
+        taskList.rollbackTransaction();
+        otherWriter.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        List<Task> tasks = taskList.getTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("task 0", tasks.get(0).getDescription());
+        assertEquals("task 2", tasks.get(1).getDescription());
+        assertEquals(2, taskList.findTasks("task").size());
+    }
+
+    /**
+     * Tests that memory-mapped storage is rejected, as reading its tasks changes the list.
+     */
+    @Test
+    void testRejectsMemoryMappedStorage() {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        storage.enableMemoryMapping();
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentTaskList(storage));
+    }
+
+    private static void assertConsecutive(List<Task> tasks) {
+        for (int i = 1; i < tasks.size(); i++) {
+            int previous = taskNumber(tasks.get(i - 1));
+            assertEquals(previous + 1, taskNumber(tasks.get(i)), "Snapshot should not be torn.");
+        }
+    }
+
+    private static int taskNumber(Task task) {
+        return Integer.parseInt(task.getDescription().substring("task ".length()));
+    }
+}
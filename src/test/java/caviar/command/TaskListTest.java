@@ -1,9 +1,16 @@
 package caviar.command;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import caviar.storage.Storage;
+import caviar.task.Deadline;
 import caviar.task.Task;
 import caviar.task.Todo;
 
@@ -11,6 +18,8 @@ import caviar.task.Todo;
  * Tests the behavior of the {@link TaskList} class.
  */
 class TaskListTest {
+    @TempDir
+    Path tempDir;
     private TaskList taskList;
 
     /**
@@ -52,4 +61,148 @@ class TaskListTest {
         taskList.deleteTask(0);
         assertEquals(0, taskList.getTasks().size(), "Task should be removed.");
     }
+
+    /**
+     * Tests that date queries follow additions and deletions made after the index was built.
+     *
+     * @throws Exception If a task cannot be created or deleted.
+     */
+    @Test
+    void testFindDeadlinesBetween() throws Exception {
+        taskList.addTask(new Deadline("Submit report", "2025-02-18 1800"));
+        taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Deadline("Pay rent", "2025-02-20"));
+        LocalDate from = LocalDate.of(2025, 2, 18);
+        LocalDate to = LocalDate.of(2025, 2, 20);
+        assertEquals(2, taskList.findDeadlinesBetween(from, to).size());
+
+        taskList.addTask(new Deadline("Return book", "2025-02-19 0900"));
+        taskList.getTasks().add(new Deadline("Call home", "2025-02-18 2000"));
+        taskList.deleteTask(0);
+        List<Deadline> results = taskList.findDeadlinesBetween(from, to);
+        assertEquals(3, results.size());
+        assertEquals("Call home", results.get(0).getDescription());
+        assertEquals("Return book", results.get(1).getDescription());
+        assertEquals("Pay rent", results.get(2).getDescription());
+        assertEquals(1, taskList.findDeadlinesBetween(from, from).size());
+        assertEquals(0, taskList.findDeadlinesBetween(to, from).size());
+    }
+
+    /**
+     * Tests that find matches substrings across words, follows deletions and is not affected by sorting.
+     *
+     * @throws Exception If a task cannot be deleted.
+     */
+    @Test
+    void testFindTasksAfterChanges() throws Exception {
+        taskList.addTask(new Todo("Read Book"));
+        taskList.addTask(new Todo("Buy bookshelf"));
+        taskList.addTask(new Todo("Go for a run"));
+        assertEquals(2, taskList.findTasks("BOOK").size());
+        assertEquals(1, taskList.findTasks("d bo").size());
+        assertEquals(3, taskList.findTasks("o").size());
+        assertEquals(2, taskList.findTasks("Bo").size());
+        assertEquals(1, taskList.findTasks("Y").size());
+
+        taskList.deleteTask(0);
+        taskList.addTask(new Todo("Bookmark page"));
+        taskList.sortTasksByOption(1);
+        List<Task> results = taskList.findTasks("book");
+        assertEquals(2, results.size());
+        assertEquals("Buy bookshelf", results.get(0).getDescription());
+        assertEquals("Bookmark page", results.get(1).getDescription());
+        assertEquals(0, taskList.findTasks("read").size());
+    }
+
+    /**
+     * Tests that sorting shows dated tasks first and keeps ties in list order, without reordering the list.
+     *
+     * @throws Exception If a task cannot be created or deleted.
+     */
+    @Test
+    void testSortKeepsListOrder() throws Exception {
+        taskList.addTask(new Todo("buy milk"));
+        taskList.addTask(new Deadline("Submit report", "2025-02-18 1800"));
+        taskList.addTask(new Todo("Answer email"));
+        taskList.addTask(new Deadline("Pay rent", "2025-02-18 1800"));
+        taskList.addTask(new Deadline("Call home", "2025-02-17"));
+        String ascending = taskList.sortTasksByOption(1);
+        assertTrue(ascending.indexOf("Call home") < ascending.indexOf("Submit report"));
+        assertTrue(ascending.indexOf("Submit report") < ascending.indexOf("Pay rent"));
+        assertTrue(ascending.indexOf("Pay rent") < ascending.indexOf("Answer email"));
+        assertTrue(ascending.indexOf("Answer email") < ascending.indexOf("buy milk"));
+
+        taskList.deleteTask(0);
+        taskList.addTask(new Todo("Zip files"));
+        String descending = taskList.sortTasksByOption(2);
+        assertTrue(descending.indexOf("Zip files") < descending.indexOf("Answer email"));
+        assertTrue(descending.indexOf("Answer email") < descending.indexOf("Submit report"));
+        assertTrue(descending.indexOf("Submit report") < descending.indexOf("Pay rent"), "Ties keep list order.");
+        assertTrue(descending.indexOf("Pay rent") < descending.indexOf("Call home"));
+        assertEquals("Submit report", taskList.getTasks().get(0).getDescription());
+
+        String deadlines = taskList.sortTasksByType("deadline", 1);
+        assertTrue(deadlines.contains("1. [D][ ] Call home"));
+        assertFalse(deadlines.contains("Zip files"));
+    }
+
+    /**
+     * Tests that the indexes follow deletions from a list of compact tasks, whose views are new objects on every
+     * read, even when several tasks have the same values.
+     *
+     * @throws Exception If the storage cannot be read or written, or a task cannot be deleted.
+     */
+    @Test
+    void testIndexesFollowCompactTasks() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        new Storage(filePath).save(List.of(new Deadline("Pay rent", "2025-02-18 1800"), new Todo("buy milk"),
+            new Deadline("Pay rent", "2025-02-18 1800"), new Deadline("Pay rent", "2025-02-18 1800")));
+        Storage storage = new Storage(filePath);
+        storage.enableCompactTasks();
+        TaskList compact = new TaskList(storage);
+        LocalDate date = LocalDate.of(2025, 2, 18);
+        assertEquals(3, compact.findDeadlinesBetween(date, date).size());
+        compact.sortTasksByOption(1);
+        compact.markTask(2);
+
+        compact.deleteTask(2);
+        assertEquals(2, compact.findDeadlinesBetween(date, date).size());
+        String sorted = compact.sortTasksByOption(1);
+        assertFalse(sorted.contains("[X]"), "The deleted task should leave the sort index.");
+        assertTrue(sorted.contains("2. [D][ ] Pay rent"));
+        assertTrue(sorted.contains("3. [T][ ] buy milk"));
+        assertEquals(1, compact.findTasks("milk").size());
+
+        compact.addTask(new Todo("buy eggs"));
+        assertEquals(1, compact.findTasks("eggs").size());
+        compact.deleteTask(3);
+        assertEquals(0, compact.findTasks("eggs").size());
+        assertFalse(compact.sortTasksByOption(1).contains("eggs"), "An added task should leave the sort index.");
+        storage.close();
+    }
+
+    /**
+     * Tests that the changes of a transaction are not journaled before it commits, so a rollback leaves
+     * nothing behind even if the list was saved in between.
+     *
+     * @throws Exception If the storage cannot be read or written.
+     */
+    @Test
+    void testRolledBackTransactionIsNotJournaled() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList journaled = new TaskList(storage);
+        journaled.addTask(new Todo("kept"));
+        journaled.beginTransaction();
+        journaled.addTask(new Todo("undone"));
+        journaled.markTask(0);
+        journaled.saveTasks();
+        journaled.rollbackTransaction();
+        journaled.saveTasks();
+        storage.close();
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(1, loaded.size());
+        assertEquals("T | 0 | kept", loaded.get(0).toStorageString());
+    }
 }
@@ -0,0 +1,42 @@
+package caviar.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit test class for the {@link FrameStats} class.
+ */
+public class FrameStatsTest {
+    private static final long FRAME_NANOS = 16_000_000L;
+
+    /**
+     * Tests that only frames longer than the threshold are counted as stalls.
+     */
+    @Test
+    public void testCountsStalls() {
+        FrameStats stats = new FrameStats();
+        long now = 1_000_000_000L;
+        stats.recordFrame(now);
+        stats.recordFrame(now += FRAME_NANOS);
+        stats.recordFrame(now += FrameStats.STALL_THRESHOLD_NANOS + 1);
+        stats.recordFrame(now += FRAME_NANOS);
+
+        assertEquals(3, stats.getFrameCount());
+        assertEquals(1, stats.getStallCount());
+        assertEquals(FrameStats.STALL_THRESHOLD_NANOS + 1, stats.getLongestFrameNanos());
+    }
+
+    /**
+     * Tests the summary of the frames recorded.
+     */
+    @Test
+    public void testDescribe() {
+        FrameStats stats = new FrameStats();
+        assertEquals("Frames: 0, average 0.0 ms, longest 0.0 ms, 0 over 50 ms", stats.describe());
+
+        stats.recordFrame(0);
+        stats.recordFrame(FRAME_NANOS);
+        stats.recordFrame(FRAME_NANOS + 3 * FRAME_NANOS);
+        assertEquals("Frames: 2, average 32.0 ms, longest 48.0 ms, 0 over 50 ms", stats.describe());
+    }
+}
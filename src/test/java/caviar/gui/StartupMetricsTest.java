@@ -0,0 +1,29 @@
+package caviar.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JUnit test class for the {@link StartupMetrics} class.
+ */
+public class StartupMetricsTest {
+    /**
+     * Tests that only the first time of each kind is kept, whichever comes first.
+     */
+    @Test
+    public void testKeepsFirstTimes() {
+        StartupMetrics metrics = new StartupMetrics();
+        assertEquals("Startup: first frame at pending, interactive at pending", metrics.describe());
+
+        metrics.recordInteractive(900);
+        assertFalse(metrics.isComplete());
+        metrics.recordFirstFrame(400);
+        metrics.recordFirstFrame(420);
+        metrics.recordInteractive(950);
+
+        assertTrue(metrics.isComplete());
+        assertEquals("Startup: first frame at 400 ms, interactive at 900 ms", metrics.describe());
+    }
+}
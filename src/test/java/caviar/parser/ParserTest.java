@@ -1,6 +1,7 @@
 package caviar.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.List;
@@ -51,4 +52,89 @@ class ParserTest {
         List<Task> results = taskList.findTasks("book");
         assertEquals(2, results.size(), "Both tasks should be found.");
     }
+
+    /**
+     * Tests that a batch keeps going past a failing command and stops at "bye".
+     *
+     * @throws CaviarException If the batch fails.
+     */
+    @Test
+    void testExecuteBatch() throws CaviarException {
+        List<String> outputs = Parser.executeBatch(List.of("todo read book", "deadline no date", "mark 1", "bye",
+            "todo never added"), taskList, ui, storage, false);
+        assertEquals(4, outputs.size());
+        assertTrue(outputs.get(1).contains("/by"), "The failing command should report its error.");
+        assertTrue(outputs.get(3).contains("Hope to see you again"));
+        assertEquals(1, taskList.getTasks().size());
+        assertTrue(taskList.getTasks().get(0).isDone());
+    }
+
+    /**
+     * Tests that a failing command undoes every change made by a transactional batch.
+     *
+     * @throws CaviarException If the setup fails.
+     */
+    @Test
+    void testTransactionalBatchRollsBack() throws CaviarException {
+        taskList.addTask(new Todo("keep me"));
+        taskList.addTask(new Todo("delete me"));
+        assertThrows(CaviarException.class, () -> Parser.executeBatch(List.of("mark 1", "delete 2",
+            "todo added", "sort 2", "mark 9"), taskList, ui, storage, true));
+        assertEquals(2, taskList.getTasks().size());
+        assertEquals("keep me", taskList.getTasks().get(0).getDescription());
+        assertEquals("delete me", taskList.getTasks().get(1).getDescription());
+        assertFalse(taskList.getTasks().get(0).isDone());
+        assertEquals(1, taskList.findTasks("delete").size());
+    }
+
+    /**
+     * Tests that command output goes to the sink of the given {@link Ui}.
+     *
+     * @throws CaviarException If there is an error executing the commands.
+     */
+    @Test
+    void testOutputGoesToUiSink() throws CaviarException {
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        Parser.parseAndExecute("todo read book", taskList, new Ui(first), storage);
+        Parser.parseAndExecute("find book", taskList, new Ui(second), storage);
+        assertTrue(first.toString().contains("I've added this task"));
+        assertTrue(second.toString().contains("1. [T][ ] read book"));
+        assertFalse(second.toString().contains("added"), "Each request should only see its own output.");
+    }
+
+    /**
+     * Tests that sort accepts a task type in any case and rejects an option that is not a number.
+     *
+     * @throws CaviarException If there is an error executing the commands.
+     */
+    @Test
+    void testParseSort() throws CaviarException {
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(new Deadline("return book", "2025-02-25"));
+        StringBuilder byType = new StringBuilder();
+        StringBuilder invalid = new StringBuilder();
+        Parser.parseAndExecute("sort DeadLine 1", taskList, new Ui(byType), storage);
+        Parser.parseAndExecute("sort todo x", taskList, new Ui(invalid), storage);
+        assertTrue(byType.toString().contains("Here are your deadline tasks sorted"));
+        assertTrue(byType.toString().contains("return book"));
+        assertFalse(byType.toString().contains("read book"));
+        assertTrue(invalid.toString().contains("Invalid sort option"));
+    }
+
+    /**
+     * Tests that "bye" is recognized with arguments and in any case, and that executing it does not exit.
+     *
+     * @throws CaviarException If there is an error executing the command.
+     */
+    @Test
+    void testIsBye() throws CaviarException {
+        assertTrue(Parser.isBye("bye"));
+        assertTrue(Parser.isBye("BYE "));
+        assertTrue(Parser.isBye("bye now"));
+        assertFalse(Parser.isBye("byebye"));
+        StringBuilder output = new StringBuilder();
+        Parser.parseAndExecute("bye now", taskList, new Ui(output), storage);
+        assertTrue(output.toString().contains("Hope to see you again"));
+    }
 }
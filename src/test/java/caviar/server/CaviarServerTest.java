@@ -0,0 +1,106 @@
+package caviar.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import caviar.storage.Storage;
+import caviar.tenant.TenantTaskLists;
+
+/**
+ * Tests the behavior of the {@link CaviarServer} class.
+ */
+class CaviarServerTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that clients share one task list and that "bye" only ends the client's own connection.
+     *
+     * @throws Exception If the server cannot be started or reached.
+     */
+    @Test
+    void testClientsShareTaskList() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        try (CaviarServer server = new CaviarServer(new Storage(file.toString(), true))) {
+            int port = server.start(0);
+            try (Socket first = connect(port); Socket second = connect(port)) {
+                assertTrue(send(first, "todo read book").contains("I've added this task"));
+                assertTrue(send(second, "todo return book").contains("Now you have 2 tasks"));
+                assertTrue(send(second, "mark 9").contains("No such task exists"));
+                assertTrue(send(first, "bye").contains("Hope to see you again"));
+                String listing = send(second, "find book");
+                assertTrue(listing.contains("1. [T][ ] read book"));
+                assertTrue(listing.contains("2. [T][ ] return book"));
+            }
+        }
+        assertEquals(2, new Storage(file.toString(), true).load().size(), "Changes should be saved.");
+    }
+
+    /**
+     * Tests that a "bye" command with arguments ends only its own connection and leaves the server running.
+     *
+     * @throws Exception If the server cannot be started or reached.
+     */
+    @Test
+    void testByeWithArgumentsKeepsServerRunning() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        try (CaviarServer server = new CaviarServer(new Storage(file.toString(), true))) {
+            int port = server.start(0);
+            try (Socket first = connect(port); Socket second = connect(port)) {
+                assertTrue(send(first, "bye now").contains("Hope to see you again"));
+                assertEquals(-1, first.getInputStream().read(), "The connection should be closed.");
+                assertTrue(send(second, "todo read book").contains("I've added this task"));
+            }
+        }
+    }
+
+    /**
+     * Tests that in multi-user mode each user only sees their own tasks.
+     *
+     * @throws Exception If the server cannot be started or reached.
+     */
+    @Test
+    void testUsersHaveSeparateTaskLists() throws Exception {
+        try (CaviarServer server = new CaviarServer(new TenantTaskLists(tempDir, 1, 100))) {
+            int port = server.start(0);
+            try (Socket alice = connect(port); Socket bob = connect(port)) {
+                assertTrue(send(alice, "todo read book").contains("Say who you are first"));
+                assertTrue(send(alice, "user alice").contains("Hello, alice"));
+                assertTrue(send(bob, "user bob").contains("Hello, bob"));
+                send(alice, "todo read book");
+                send(bob, "todo write book");
+                assertTrue(send(alice, "find book").contains("1. [T][ ] read book"));
+                assertTrue(send(bob, "find book").contains("1. [T][ ] write book"));
+                assertTrue(send(bob, "user ../alice").contains("Invalid user name"));
+            }
+        }
+    }
+
+    private static Socket connect(int port) throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Sends a command and reads its response, which ends with an empty line.
+     */
+    private static String send(Socket socket, String command) throws IOException {
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out.println(command);
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.isEmpty()) {
+            response.append(line).append('\n');
+        }
+        return response.toString();
+    }
+}
@@ -0,0 +1,370 @@
+package caviar.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import caviar.exception.CaviarException;
+import caviar.task.Deadline;
+import caviar.task.Event;
+import caviar.task.Task;
+import caviar.task.TaskStore;
+import caviar.task.Todo;
+
+/**
+ * Tests the behavior of the {@link Storage} class.
+ */
+class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests if journaled mutations are replayed on top of the snapshot when loading.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testJournalReplay() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        List<Task> tasks = storage.load();
+
+        tasks.add(new Todo("read book"));
+        storage.recordAdd(tasks.get(0));
+        tasks.add(new Todo("return book"));
+        storage.recordAdd(tasks.get(1));
+        storage.flush(tasks);
+        tasks.get(1).markAsDone();
+        storage.recordMark(1);
+        tasks.remove(0);
+        storage.recordDelete(0);
+        storage.flush(tasks);
+        storage.close();
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(1, loaded.size(), "Only one task should remain after replay.");
+        assertEquals("T | 1 | return book", loaded.get(0).toStorageString());
+    }
+
+    /**
+     * Tests if a journal compacted into a snapshot still loads the same tasks.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testJournalCompaction() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        List<Task> tasks = new ArrayList<>(storage.load());
+
+        tasks.add(new Todo("before compaction"));
+        storage.recordAdd(tasks.get(0));
+        storage.save(tasks);
+        tasks.add(new Todo("after compaction"));
+        storage.recordAdd(tasks.get(1));
+        storage.flush(tasks);
+        storage.close();
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(2, loaded.size(), "Both tasks should be loaded.");
+        assertEquals("T | 0 | after compaction", loaded.get(1).toStorageString());
+    }
+
+    /**
+     * Tests if journal segments left next to a snapshot written without a journal are not replayed on top of it.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testLeftoverJournalIgnoredWithoutHeader() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage journaled = new Storage(filePath, true);
+        List<Task> tasks = journaled.load();
+        tasks.add(new Todo("read book"));
+        journaled.recordAdd(tasks.get(0));
+        journaled.flush(tasks);
+        journaled.close();
+
+        new Storage(filePath).save(tasks);
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(1, loaded.size(), "The leftover journal should not duplicate the task.");
+        assertEquals("T | 0 | read book", loaded.get(0).toStorageString());
+    }
+
+    /**
+     * Tests if changes journaled on top of a file written without a journal, such as an old task file, are kept.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testJournalOnFileWithoutHeader() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Files.writeString(Path.of(filePath), "T | 0 | read book\n");
+
+        Storage journaled = new Storage(filePath, true);
+        List<Task> tasks = journaled.load();
+        tasks.add(new Todo("return book"));
+        journaled.recordAdd(tasks.get(1));
+        journaled.flush(tasks);
+        journaled.close();
+
+        List<Task> loaded = new Storage(filePath, true).load();
+        assertEquals(2, loaded.size(), "The journaled task should survive a reload.");
+        assertEquals("T | 0 | return book", loaded.get(1).toStorageString());
+    }
+
+    /**
+     * Tests if flushing writes nothing when no mutation has been recorded.
+     *
+     * @throws Exception If saving fails.
+     */
+    @Test
+    void testFlushSkipsCleanStorage() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString());
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+
+        storage.flush(tasks);
+        assertFalse(Files.exists(file), "Clean storage should not be written.");
+
+        storage.recordAdd(tasks.get(0));
+        assertTrue(storage.isDirty(), "Recorded mutation should make storage dirty.");
+        storage.flush(tasks);
+        assertFalse(storage.isDirty(), "Flush should clear the dirty flag.");
+        assertEquals(1, new Storage(file.toString()).load().size(), "Task should be written on flush.");
+    }
+
+    /**
+     * Tests if write-behind storage batches flushes and writes everything out on close.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testWriteBehindDrainsOnClose() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(filePath);
+        storage.enableWriteBehind(60_000, Integer.MAX_VALUE);
+        List<Task> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Todo("task " + i));
+            storage.recordAdd(tasks.get(i));
+            storage.flush(tasks);
+        }
+        storage.close();
+
+        List<Task> loaded = new Storage(filePath).load();
+        assertEquals(100, loaded.size(), "Every flushed task should be written on close.");
+        assertEquals("T | 0 | task 99", loaded.get(99).toStorageString());
+    }
+
+    /**
+     * Tests if a task file whose contents do not match its checksum trailer is rejected.
+     *
+     * @throws Exception If saving fails.
+     */
+    @Test
+    void testLoadRejectsCorruptedFile() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        new Storage(file.toString()).save(tasks);
+
+        String content = Files.readString(file);
+        Files.writeString(file, content.replace("read book", "read bool"));
+
+        assertThrows(CaviarException.class, () -> new Storage(file.toString()).load());
+    }
+
+    /**
+     * Tests if a task file cut short before its checksum trailer is rejected, unless it is in the legacy format.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testLoadRejectsMissingTrailer() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        Storage storage = new Storage(file.toString(), true);
+        List<Task> tasks = new ArrayList<>(storage.load());
+        tasks.add(new Todo("read book"));
+        storage.save(tasks);
+        storage.close();
+
+        String content = Files.readString(file);
+        Files.writeString(file, content.substring(0, content.indexOf(Storage.CHECKSUM_TRAILER)));
+        assertThrows(CaviarException.class, () -> new Storage(file.toString()).load());
+        Storage mappedStorage = new Storage(file.toString());
+        mappedStorage.enableMemoryMapping();
+        assertThrows(CaviarException.class, mappedStorage::load);
+
+        Files.writeString(file, "T | 0 | read book\n");
+        assertEquals(1, new Storage(file.toString()).load().size(), "A legacy file should still load.");
+    }
+
+    /**
+     * Tests if a memory-mapped load sees the same tasks as a regular load and can be saved back.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testMemoryMappedLoad() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("return book"));
+        new Storage(filePath).save(tasks);
+
+        Storage storage = new Storage(filePath);
+        storage.enableMemoryMapping();
+        List<Task> mapped = storage.load();
+        assertEquals(2, mapped.size(), "Both tasks should be mapped.");
+        mapped.get(1).markAsDone();
+        mapped.remove(0);
+        mapped.add(new Todo("buy milk"));
+        storage.save(mapped);
+
+        List<Task> loaded = new Storage(filePath).load();
+        assertEquals("T | 1 | return book", loaded.get(0).toStorageString());
+        assertEquals("T | 0 | buy milk", loaded.get(1).toStorageString());
+    }
+
+    /**
+     * Tests if compact tasks load into a task store, including journaled changes, and save back unchanged.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testCompactTasksLoad() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", "2025-02-18 1800"));
+        tasks.add(new Event("project meeting", "2025-03-01 10:00", "2025-03-01 12:00"));
+        new Storage(filePath, true).save(tasks);
+
+        Storage storage = new Storage(filePath, true);
+        storage.enableCompactTasks();
+        List<Task> compact = storage.load();
+        assertTrue(compact instanceof TaskStore, "Tasks should load into a task store.");
+        compact.get(1).markAsDone();
+        storage.recordMark(1);
+        compact.remove(0);
+        storage.recordDelete(0);
+        storage.flush(compact);
+        storage.close();
+
+        Storage reloaded = new Storage(filePath, true);
+        reloaded.enableCompactTasks();
+        List<Task> loaded = reloaded.load();
+        assertEquals("D | 1 | return book | 2025-02-18 18:00", loaded.get(0).toStorageString());
+        assertEquals("E | 0 | project meeting | 2025-03-01 10:00 | 2025-03-01 12:00", loaded.get(1).toStorageString());
+        reloaded.save(loaded);
+        reloaded.close();
+        assertEquals(2, new Storage(filePath).load().size());
+    }
+
+    /**
+     * Tests if tasks survive a conversion to the binary format and back, and if the format is detected on load.
+     *
+     * @throws Exception If converting or loading fails.
+     */
+    @Test
+    void testBinaryFormatRoundTrip() throws Exception {
+        String textPath = tempDir.resolve("tasks.txt").toString();
+        String binaryPath = tempDir.resolve("tasks.bin").toString();
+        String roundTripPath = tempDir.resolve("round-trip.txt").toString();
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", "2025-02-18 1800"));
+        tasks.add(new Event("project meeting", "2025-03-01 10:00", "2025-03-01 12:00"));
+        tasks.get(1).markAsDone();
+        new Storage(textPath).save(tasks);
+
+        assertEquals(3, TaskFileConverter.convert(textPath, binaryPath, true));
+        Storage binaryStorage = new Storage(binaryPath);
+        assertEquals(3, binaryStorage.load().size(), "Binary file should be detected and loaded.");
+        assertTrue(binaryStorage.isBinary(), "Binary format should be detected from the header.");
+
+        TaskFileConverter.convert(binaryPath, roundTripPath, false);
+        assertEquals(Files.readString(Path.of(textPath)), Files.readString(Path.of(roundTripPath)));
+    }
+
+    /**
+     * Tests if a binary file whose description length is corrupted is rejected before the length is allocated.
+     *
+     * @throws Exception If saving or converting fails.
+     */
+    @Test
+    void testBinaryLoadRejectsCorruptedLength() throws Exception {
+        String textPath = tempDir.resolve("tasks.txt").toString();
+        Path binaryPath = tempDir.resolve("tasks.bin");
+        new Storage(textPath).save(List.of(new Todo("read book")));
+        TaskFileConverter.convert(textPath, binaryPath.toString(), true);
+
+        byte[] bytes = Files.readAllBytes(binaryPath);
+        int lengthOffset = BinaryTaskFormat.MAGIC.length + 1 + Integer.BYTES * 2 + 2;
+        ByteBuffer.wrap(bytes).putInt(lengthOffset, Integer.MAX_VALUE - 8);
+        Files.write(binaryPath, bytes);
+
+        CaviarException e = assertThrows(CaviarException.class, () -> new Storage(binaryPath.toString()).load());
+        assertTrue(e.getMessage().contains("bad description length"));
+    }
+
+    /**
+     * Tests if a parallel load sees the same tasks, and fails on the same line, as a sequential load.
+     *
+     * @throws Exception If saving or loading fails.
+     */
+    @Test
+    void testParallelLoadMatchesSequential() throws Exception {
+        Path file = tempDir.resolve("tasks.txt");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            tasks.add(i % 2 == 0 ? new Todo("task " + i) : new Deadline("task " + i, "2025-02-18 1800"));
+        }
+        new Storage(file.toString()).save(tasks);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(storageStrings(new Storage(file.toString()).load()),
+                storageStrings(loadInParallel(file, pool)));
+
+            String content = Files.readString(file);
+            Files.writeString(file, content.replace("task 15001 | 2025-02-18 1800", "task 15001 | someday")
+                .replace("D | 0 | task 29999 | ", "D | 0 | task 29999 "));
+            CaviarException expected = assertThrows(CaviarException.class,
+                () -> new Storage(file.toString()).load());
+            CaviarException actual = assertThrows(CaviarException.class, () -> loadInParallel(file, pool));
+            assertEquals(expected.getMessage(), actual.getMessage(), "The first malformed line should be reported.");
+
+            Files.writeString(file, content + "T | 0 | after trailer\n");
+            actual = assertThrows(CaviarException.class, () -> loadInParallel(file, pool));
+            assertTrue(actual.getMessage().contains("data after checksum"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<Task> loadInParallel(Path file, ForkJoinPool pool) throws Exception {
+        Storage storage = new Storage(file.toString());
+        storage.enableParallelLoading(pool);
+        return storage.load();
+    }
+
+    private static List<String> storageStrings(List<Task> tasks) {
+        List<String> strings = new ArrayList<>();
+        for (Task task : tasks) {
+            strings.add(task.toStorageString());
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,134 @@
+package caviar.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the behavior of the {@link TaskStore} class.
+ */
+class TaskStoreTest {
+
+    /**
+     * Tests if appended tasks read back the same from the columns, and if their views write their status back.
+     *
+     * @throws Exception If a date cannot be parsed.
+     */
+    @Test
+    void testAppendedTasksReadBack() throws Exception {
+        TaskStore store = new TaskStore();
+        Task todo = new Todo("read book ☕");
+        Task deadline = new Deadline("return book", "2025-02-18 1800");
+        Task event = new Event("project meeting", "2025-03-01 10:00", "2025-03-01 12:00");
+        deadline.markAsDone();
+        store.append(todo);
+        store.append(deadline);
+        store.append(event);
+
+        for (int i = 0; i < store.size(); i++) {
+            Task original = i == 0 ? todo : i == 1 ? deadline : event;
+            assertEquals(original.toString(), store.get(i).toString());
+            assertEquals(original.toStorageString(), store.get(i).toStorageString());
+        }
+        assertEquals(store.get(1), store.get(1), "Views of the same task should be equal.");
+        assertTrue(store.get(1) instanceof Deadline);
+
+        store.get(0).markAsDone();
+        store.get(1).markAsNotDone();
+        assertTrue(store.get(0).isDone());
+        assertFalse(store.get(1).isDone());
+        assertFalse(todo.isDone(), "The appended task itself should not change.");
+    }
+
+    /**
+     * Tests if a removed task keeps its values, and if added tasks are kept as they are.
+     */
+    @Test
+    void testRemoveAndAdd() {
+        TaskStore store = new TaskStore();
+        store.append(new Todo("a"));
+        store.append(new Todo("b"));
+        Task viewed = store.get(1);
+
+        Task removed = store.remove(1);
+        assertEquals(viewed, removed, "The view handed out should equal the task removed.");
+        store.append(new Todo("c"));
+        removed.markAsDone();
+        assertEquals("[T][X] b", removed.toString());
+
+        Task added = new Deadline("d", LocalDateTime.of(2025, 2, 18, 18, 0, 30));
+        store.add(1, added);
+        store.add(0, removed);
+        assertSame(added, store.get(2), "A task added to the list should be kept as it is.");
+        assertSame(removed, store.get(0));
+        assertEquals("[T][X] b", store.get(0).toString());
+        assertEquals("[T][ ] c", store.get(3).toString());
+    }
+
+    /**
+     * Tests if views handed out keep reading their tasks after the store drops the rows of removed tasks.
+     */
+    @Test
+    void testViewsSurviveCompaction() {
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < 3000; i++) {
+            store.append(new Todo("task " + i));
+        }
+        Task last = store.get(2999);
+        for (int i = 0; i < 2500; i++) {
+            store.remove(0);
+        }
+        last.markAsDone();
+
+        assertEquals(500, store.size());
+        assertEquals("[T][ ] task 2500", store.get(0).toString());
+        assertEquals(last, store.get(499));
+        assertEquals("T | 1 | task 2999", store.get(499).toStorageString());
+    }
+
+    /**
+     * Tests if views are equal only to views of the same task, and if a view of a task whose row was dropped
+     * fails rather than reading another task.
+     */
+    @Test
+    void testViewsMatchTheirTask() {
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < 3000; i++) {
+            store.append(new Todo("same"));
+        }
+        assertFalse(store.get(0).equals(store.get(1)), "Tasks with the same values should not be equal.");
+        assertEquals(store.get(0).hashCode(), store.get(0).hashCode());
+        assertFalse(store.get(0).equals(store.copy().get(0)), "Tasks of a copy should not equal those of the store.");
+
+        Task stale = store.get(0);
+        for (int i = 0; i < 2500; i++) {
+            store.remove(0);
+        }
+        assertThrows(IllegalStateException.class, stale::getDescription);
+    }
+
+    /**
+     * Tests if a copy is not affected by later changes to the store, nor the store by changes to the copy.
+     */
+    @Test
+    void testCopyIsIndependent() {
+        TaskStore store = new TaskStore();
+        store.append(new Todo("a"));
+        store.append(new Todo("b"));
+        TaskStore copy = store.copy();
+
+        store.get(0).markAsDone();
+        store.remove(1);
+        store.append(new Todo("c"));
+        copy.append(new Todo("d"));
+
+        assertEquals("T | 0 | a", copy.get(0).toStorageString());
+        assertEquals("T | 0 | b", copy.get(1).toStorageString());
+        assertEquals("T | 0 | d", copy.get(2).toStorageString());
+        assertEquals("T | 0 | c", store.get(1).toStorageString());
+    }
+}
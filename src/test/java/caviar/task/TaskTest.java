@@ -1,5 +1,6 @@
 package caviar.task;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
@@ -29,4 +30,17 @@ class TaskTest {
         task.markAsNotDone();
         assertFalse(task.isDone, "Task should be marked as not done.");
     }
+
+    /**
+     * Tests if a task whose description contains the field separator survives a storage round trip.
+     *
+     * @throws Exception If the storage string cannot be parsed.
+     */
+    @Test
+    void testStorageStringRoundTrip() throws Exception {
+        String data = "D | 1 | pay rent | utilities | 2025-02-25 18:00";
+        Task task = Task.fromStorageString(data);
+        assertEquals("pay rent | utilities", task.getDescription());
+        assertEquals(data, task.toStorageString());
+    }
 }
@@ -0,0 +1,116 @@
+package caviar.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import caviar.exception.CaviarException;
+import caviar.task.Todo;
+
+/**
+ * Tests the behavior of the {@link TenantTaskLists} class.
+ */
+class TenantTaskListsTest {
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that least recently used task lists are saved when evicted and reloaded on their next use.
+     *
+     * @throws Exception If a task file cannot be read or written.
+     */
+    @Test
+    void testEvictsLeastRecentlyUsed() throws Exception {
+        try (TenantTaskLists tenants = new TenantTaskLists(tempDir, 2, 100)) {
+            for (String user : new String[] {"alice", "bob", "carol"}) {
+                tenants.withTaskList(user, (taskList, storage) -> {
+                    taskList.addTask(new Todo("task of " + user));
+                    taskList.saveTasks();
+                    return null;
+                });
+            }
+            assertEquals(2, tenants.getLoadedTenantCount());
+            assertEquals(1, tenants.getEvictionCount());
+
+            String description = tenants.withTaskList("alice",
+                (taskList, storage) -> taskList.getTasks().get(0).getDescription());
+            assertEquals("task of alice", description, "Evicted tasks should be reloaded from disk.");
+            assertEquals(4, tenants.getLoadCount());
+            assertEquals(0, tenants.getHitCount());
+
+            tenants.withTaskList("alice", (taskList, storage) -> null);
+            assertEquals(1, tenants.getHitCount());
+            assertEquals(2, tenants.getLoadedTaskCount());
+        }
+    }
+
+    /**
+     * Tests that the total number of loaded tasks stays within the budget.
+     *
+     * @throws Exception If a task file cannot be read or written.
+     */
+    @Test
+    void testEvictsOverTaskBudget() throws Exception {
+        try (TenantTaskLists tenants = new TenantTaskLists(tempDir, 10, 5)) {
+            for (int i = 0; i < 4; i++) {
+                tenants.withTaskList("user" + i, (taskList, storage) -> {
+                    for (int j = 0; j < 3; j++) {
+                        taskList.addTask(new Todo("task " + j));
+                    }
+                    taskList.saveTasks();
+                    return null;
+                });
+                assertTrue(tenants.getLoadedTaskCount() <= 5, tenants.describeMetrics());
+            }
+            assertEquals(3, tenants.getEvictionCount());
+        }
+    }
+
+    /**
+     * Tests that user names cannot be used to reach files outside the data directory.
+     *
+     * @throws Exception If the data directory cannot be created.
+     */
+    @Test
+    void testRejectsInvalidUserName() throws Exception {
+        try (TenantTaskLists tenants = new TenantTaskLists(tempDir, 2, 100)) {
+            assertThrows(CaviarException.class, () -> tenants.withTaskList("../alice", (taskList, storage) -> null));
+            assertEquals(0, tenants.getLoadCount());
+        }
+    }
+
+    /**
+     * Tests that names differing only in case reach the same list, and that calls racing to load a list
+     * load it once.
+     *
+     * @throws Exception If a task file cannot be read or written.
+     */
+    @Test
+    void testLoadsEachUserOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (TenantTaskLists tenants = new TenantTaskLists(tempDir, 2, 100)) {
+            List<Future<Integer>> sizes = new ArrayList<>();
+            for (String user : new String[] {"alice", "Alice", "ALICE", "aLiCe"}) {
+                sizes.add(executor.submit(() -> tenants.withTaskList(user, (taskList, storage) -> {
+                    taskList.addTask(new Todo("task of " + user));
+                    return taskList.getTasks().size();
+                })));
+            }
+            for (Future<Integer> size : sizes) {
+                size.get();
+            }
+            assertEquals(1, tenants.getLoadCount());
+            assertEquals(3, tenants.getHitCount());
+            assertEquals(4, tenants.getLoadedTaskCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}